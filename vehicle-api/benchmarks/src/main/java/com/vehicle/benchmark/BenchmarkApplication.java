@@ -0,0 +1,109 @@
+package com.vehicle.benchmark;
+
+import com.vehicle.VehicleApplication;
+import com.vehicle.entity.FuelType;
+import com.vehicle.entity.VehicleType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Starts the full application against an in-memory H2 database whose
+ * catalog is seeded with generated vehicles through the regular importer.
+ */
+public final class BenchmarkApplication {
+
+    static final String[] BRANDS = {
+            "Toyota", "Honda", "Ford", "Tesla", "BMW", "Audi", "Mercedes-Benz", "Kia", "Hyundai", "Mazda",
+            "Subaru", "Volkswagen", "Porsche", "Lexus", "Chevrolet", "Jeep", "Nissan", "Volvo", "Rivian", "Skoda"
+    };
+    static final String[] COLORS = {"White", "Black", "Silver", "Red", "Blue", "Grey", "Green", "Yellow"};
+
+    private static final String[] WORDS = {
+            "spacious", "efficient", "sporty", "comfortable", "reliable", "family", "luxury", "compact",
+            "adventure", "performance", "quiet", "electric", "turbocharged", "practical", "premium", "rugged"
+    };
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * @param vehicles   number of vehicles to seed
+     * @param properties extra application properties as {@code key=value},
+     *                   overriding the defaults set here
+     */
+    public static ConfigurableApplicationContext start(int vehicles, String... properties) {
+        Path seed = writeCatalog(vehicles);
+        Map<String, String> all = new LinkedHashMap<>();
+        all.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE");
+        all.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        all.put("spring.datasource.username", "sa");
+        all.put("spring.datasource.password", "");
+        all.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        all.put("spring.jpa.properties.hibernate.generate_statistics", "false");
+        all.put("server.port", "0");
+        all.put("logging.level.root", "WARN");
+        all.put("logging.level.org.springframework.security", "ERROR");
+        all.put("vehicle.import.seed", "file:" + seed.toAbsolutePath());
+        for (String property : properties) {
+            int separator = property.indexOf('=');
+            all.put(property.substring(0, separator), property.substring(separator + 1));
+        }
+        try {
+            // As arguments, since default properties lose to application.properties
+            return new SpringApplicationBuilder(VehicleApplication.class)
+                    .run(all.entrySet().stream()
+                            .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                            .toArray(String[]::new));
+        } finally {
+            try {
+                Files.deleteIfExists(seed);
+            } catch (IOException ignored) {
+                // temporary file, removed on reboot at the latest
+            }
+        }
+    }
+
+    /**
+     * Writes a CSV feed of distinct vehicles, each with plenty of stock so
+     * checkout benchmarks never run out.
+     */
+    static Path writeCatalog(int vehicles) {
+        VehicleType[] types = VehicleType.values();
+        FuelType[] fuelTypes = FuelType.values();
+        try {
+            Path file = Files.createTempFile("vehicles-", ".csv");
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                out.write("name,model,brand,year,color,price,quantityAvailable,type,fuelType,description,imageUrl\n");
+                for (int i = 0; i < vehicles; i++) {
+                    String brand = BRANDS[i % BRANDS.length];
+                    String model = "M" + i;
+                    int price = 15_000 + (int) ((i * 7919L) % 120_000);
+                    out.write(String.join(",",
+                            brand + " " + model, model, brand,
+                            String.valueOf(2015 + i % 10),
+                            COLORS[(i / BRANDS.length) % COLORS.length],
+                            price + ".00",
+                            "1000000",
+                            types[i % types.length].name(),
+                            fuelTypes[(i / 3) % fuelTypes.length].name(),
+                            WORDS[i % WORDS.length] + " " + WORDS[(i / 7) % WORDS.length] + " " + brand.toLowerCase(Locale.ROOT)
+                                    + " " + WORDS[(i / 31) % WORDS.length],
+                            "https://images.example.com/" + i + ".jpg"));
+                    out.write('\n');
+                }
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
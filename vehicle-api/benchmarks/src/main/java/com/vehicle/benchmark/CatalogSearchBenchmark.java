@@ -0,0 +1,79 @@
+package com.vehicle.benchmark;
+
+import com.vehicle.dto.VehicleDTO;
+import com.vehicle.dto.VehicleFacetsResponse;
+import com.vehicle.dto.VehicleSearchResponse;
+import com.vehicle.entity.FuelType;
+import com.vehicle.entity.VehicleType;
+import com.vehicle.service.VehicleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog listing, facets and full-text search against an embedded database
+ * seeded with {@code vehicles} rows, served from the in-memory indexes or, with
+ * {@code index=false}, from JPA queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CatalogSearchBenchmark {
+
+    @Param({"100000"})
+    int vehicles;
+
+    @Param({"true", "false"})
+    boolean index;
+
+    private ConfigurableApplicationContext context;
+    private VehicleService vehicleService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(vehicles, "vehicle.catalog.index.enabled=" + index);
+        vehicleService = context.getBean(VehicleService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<VehicleDTO> filterByBrandAndPrice() {
+        String brand = randomBrand();
+        return vehicleService.getAllVehicles(null, brand, null,
+                new BigDecimal("20000"), new BigDecimal("60000"), null, null,
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "price")));
+    }
+
+    @Benchmark
+    public Page<VehicleDTO> filterByTypeAndFuel() {
+        return vehicleService.getAllVehicles(null, null, null, null, null,
+                VehicleType.SUV, FuelType.ELECTRIC, PageRequest.of(0, 20, Sort.by("id")));
+    }
+
+    @Benchmark
+    public VehicleFacetsResponse facets() {
+        return vehicleService.getVehicleFacets(null, randomBrand(), null, null, null, null, null);
+    }
+
+    @Benchmark
+    public VehicleSearchResponse fullText() {
+        return vehicleService.searchVehicles("reliable " + randomBrand().toLowerCase(), null, null, null, 0, 20);
+    }
+
+    private static String randomBrand() {
+        return BenchmarkApplication.BRANDS[ThreadLocalRandom.current().nextInt(BenchmarkApplication.BRANDS.length)];
+    }
+}
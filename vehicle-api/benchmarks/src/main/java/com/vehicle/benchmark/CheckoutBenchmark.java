@@ -0,0 +1,85 @@
+package com.vehicle.benchmark;
+
+import com.vehicle.dto.CreateOrderRequest;
+import com.vehicle.dto.OrderItemRequest;
+import com.vehicle.dto.OrderResponse;
+import com.vehicle.entity.Role;
+import com.vehicle.entity.User;
+import com.vehicle.repository.UserRepository;
+import com.vehicle.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order creation for carts of {@code lines} vehicles in each inventory mode.
+ * Throughput mode gives orders per second; run with {@code -bm sample} for
+ * the latency distribution per cart size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    @Param({"10000"})
+    int vehicles;
+
+    @Param({"LEDGER", "DATABASE", "OPTIMISTIC"})
+    String mode;
+
+    @Param({"1", "10", "100"})
+    int lines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(vehicles, "vehicle.inventory.mode=" + mode);
+        orderService = context.getBean(OrderService.class);
+        user = context.getBean(UserRepository.class).save(User.builder()
+                .firstName("Bench")
+                .lastName("Mark")
+                .email("bench@example.com")
+                .password("x")
+                .role(Role.USER)
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        return orderService.createOrder(user, cart());
+    }
+
+    /**
+     * A cart of distinct vehicles starting at a random offset, so concurrent
+     * threads mostly touch different rows.
+     */
+    private CreateOrderRequest cart() {
+        long first = ThreadLocalRandom.current().nextLong(vehicles - lines + 1);
+        List<OrderItemRequest> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setVehicleId(first + i + 1);
+            item.setQuantity(1);
+            items.add(item);
+        }
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setShippingAddress("1 Benchmark Way");
+        request.setItems(items);
+        return request;
+    }
+}
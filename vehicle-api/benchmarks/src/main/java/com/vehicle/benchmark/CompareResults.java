@@ -0,0 +1,76 @@
+package com.vehicle.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Compares two JMH JSON result files and exits with status 1 if any
+ * benchmark got worse by more than the threshold.
+ * <p>
+ * Usage: {@code CompareResults <baseline.json> <candidate.json> [threshold-percent]}
+ */
+public final class CompareResults {
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <candidate.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> candidate = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Candidate", "Change");
+        for (Map.Entry<String, Result> entry : candidate.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            Result after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", after.score(), "new");
+                continue;
+            }
+            double change = (after.score() - before.score()) / before.score() * 100;
+            // Positive means better: more operations per second, or less time per operation
+            double improvement = after.higherIsBetter() ? change : -change;
+            boolean regressed = improvement < -threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%%s%n",
+                    entry.getKey(), before.score(), after.score(), change, regressed ? "  REGRESSION" : "");
+        }
+        baseline.keySet().stream()
+                .filter(key -> !candidate.containsKey(key))
+                .forEach(key -> System.out.printf("%-90s %14.3f %14s %9s%n", key, baseline.get(key).score(), "-", "removed"));
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            key.append(" [").append(run.path("mode").asText());
+            run.path("params").fields().forEachRemaining(param ->
+                    key.append(", ").append(param.getKey()).append('=').append(param.getValue().asText()));
+            key.append(", threads=").append(run.path("threads").asInt()).append(']');
+            results.put(key.toString(), new Result(
+                    run.path("primaryMetric").path("score").asDouble(),
+                    run.path("mode").asText().equals("thrpt")));
+        }
+        return results;
+    }
+
+    private record Result(double score, boolean higherIsBetter) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.vehicle.benchmark;
+
+import com.vehicle.dto.CreateOrderRequest;
+import com.vehicle.dto.OrderItemRequest;
+import com.vehicle.entity.Role;
+import com.vehicle.entity.User;
+import com.vehicle.repository.UserRepository;
+import com.vehicle.service.InsufficientStockException;
+import com.vehicle.service.OrderService;
+import com.vehicle.service.StockConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout throughput when many threads buy from the same {@code hot}
+ * vehicles, with version-checked updates (OPTIMISTIC) against
+ * {@code SELECT ... FOR UPDATE} (DATABASE).
+ * <p>
+ * Every iteration resets the hot vehicles to {@code stock} units and fails
+ * if, at its end, any of them went below zero or the units sold plus the
+ * units left differ from that stock. Run with {@code -p stock=500} to sell
+ * out during the iteration. The secondary results count placed, sold-out
+ * and conflicted (409) checkouts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(16)
+@Fork(1)
+public class InventoryContentionBenchmark {
+
+    private static final String RESET_STOCK =
+            "UPDATE vehicles SET quantity_available = ?, version = version + 1 WHERE id <= ?";
+    private static final String SOLD =
+            "SELECT vehicle_id, SUM(quantity) FROM order_items WHERE vehicle_id <= ? GROUP BY vehicle_id";
+    private static final String STOCK = "SELECT id, quantity_available FROM vehicles WHERE id <= ?";
+
+    @Param({"DATABASE", "OPTIMISTIC"})
+    String mode;
+
+    @Param({"4"})
+    int hot;
+
+    @Param({"2"})
+    int lines;
+
+    @Param({"1000000"})
+    int stock;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private JdbcTemplate jdbcTemplate;
+    private MeterRegistry meterRegistry;
+    private User user;
+    private Map<Long, Integer> soldBefore;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(100,
+                "vehicle.inventory.mode=" + mode,
+                "vehicle.orders.expiry.pending-ttl-ms=0");
+        orderService = context.getBean(OrderService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        meterRegistry = context.getBean(MeterRegistry.class);
+        user = context.getBean(UserRepository.class).save(User.builder()
+                .firstName("Bench")
+                .lastName("Mark")
+                .email("bench@example.com")
+                .password("x")
+                .role(Role.USER)
+                .build());
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStock() {
+        jdbcTemplate.update(RESET_STOCK, stock, hot);
+        soldBefore = sold();
+    }
+
+    @TearDown(Level.Iteration)
+    public void verifyNoOversell() {
+        Map<Long, Integer> soldAfter = sold();
+        jdbcTemplate.query(STOCK, rs -> {
+            long vehicleId = rs.getLong(1);
+            int left = rs.getInt(2);
+            int sold = soldAfter.getOrDefault(vehicleId, 0) - soldBefore.getOrDefault(vehicleId, 0);
+            if (left < 0 || sold + left != stock) {
+                throw new IllegalStateException("Vehicle " + vehicleId + " sold " + sold + " with "
+                        + left + " left out of " + stock);
+            }
+        }, hot);
+        if ("OPTIMISTIC".equals(mode)) {
+            double applied = meterRegistry.counter("vehicle.inventory.optimistic.updates", "result", "applied").count();
+            double conflicts = meterRegistry.counter("vehicle.inventory.optimistic.updates", "result", "conflict").count();
+            System.out.printf("Conflict rate so far: %.1f%% of %d updates%n",
+                    100 * conflicts / Math.max(1, applied + conflicts), (long) (applied + conflicts));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void checkout(Outcomes outcomes) {
+        try {
+            orderService.createOrder(user, cart());
+            outcomes.placed++;
+        } catch (InsufficientStockException e) {
+            outcomes.soldOut++;
+        } catch (StockConflictException e) {
+            outcomes.conflicted++;
+        }
+    }
+
+    private Map<Long, Integer> sold() {
+        Map<Long, Integer> sold = new HashMap<>();
+        jdbcTemplate.query(SOLD, rs -> {
+            sold.put(rs.getLong(1), rs.getInt(2));
+        }, hot);
+        return sold;
+    }
+
+    /**
+     * One unit each of {@code lines} distinct hot vehicles.
+     */
+    private CreateOrderRequest cart() {
+        int first = ThreadLocalRandom.current().nextInt(hot);
+        List<OrderItemRequest> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setVehicleId((long) (first + i) % hot + 1);
+            item.setQuantity(1);
+            items.add(item);
+        }
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setShippingAddress("1 Benchmark Way");
+        request.setItems(items);
+        return request;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long placed;
+        public long soldOut;
+        public long conflicted;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            placed = 0;
+            soldOut = 0;
+            conflicted = 0;
+        }
+    }
+}
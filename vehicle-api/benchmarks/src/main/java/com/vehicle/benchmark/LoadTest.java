@@ -0,0 +1,445 @@
+package com.vehicle.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator that drives the REST API with the production
+ * traffic mix and reports throughput, latency percentiles and error rate per
+ * endpoint.
+ * <p>
+ * Each client is a virtual thread with its own account that sends one request
+ * after another, picking the endpoint by weight. Request shapes follow the
+ * Postman collection. Without {@code --url} the application is started in
+ * process against an in-memory H2 database, which also allows counting the
+ * SQL statements per request.
+ * <p>
+ * Options, all as {@code --name=value}:
+ * <ul>
+ *     <li>{@code url}: base URL of a running server; default starts one in process</li>
+ *     <li>{@code clients}: concurrent clients, default 100</li>
+ *     <li>{@code duration}, {@code warmup}: measured and unmeasured run time, default 60s and 10s</li>
+ *     <li>{@code think-time}: pause between requests of a client, default 0ms</li>
+ *     <li>{@code users}: accounts shared by the clients, default 100</li>
+ *     <li>{@code etag}: clients revalidate catalog responses with {@code If-None-Match}, default false</li>
+ *     <li>{@code mix}: endpoint weights, e.g. {@code browse=40,filter=40,detail=10,login=5,history=4,checkout=1}</li>
+ *     <li>{@code vehicles}: catalog size of the in-process server, default 10000</li>
+ *     <li>{@code virtual-threads}: serve the in-process server on virtual threads, default false</li>
+ *     <li>{@code app.<property>}: any other property of the in-process server</li>
+ *     <li>{@code out}: JSON report file, default target/load-result.json</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+    private static final String PASSWORD = "Load@1234";
+    private static final String[] TYPES = {"SEDAN", "SUV", "HATCHBACK", "COUPE", "TRUCK"};
+    private static final String[] FUEL_TYPES = {"PETROL", "DIESEL", "ELECTRIC", "HYBRID"};
+
+    /**
+     * Endpoints of the traffic mix with their default weights.
+     */
+    enum Operation {
+        BROWSE(40), FILTER(40), DETAIL(10), LOGIN(5), HISTORY(4), CHECKOUT(1);
+
+        private final int defaultWeight;
+
+        Operation(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, String> options;
+    private final HttpClient http;
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final int[] cumulativeWeights = new int[Operation.values().length];
+    private final boolean etag;
+    private final long thinkTimeMs;
+
+    private String baseUrl;
+    private long vehicleCount;
+    private List<Account> accounts;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.etag = Boolean.parseBoolean(options.getOrDefault("etag", "false"));
+        this.thinkTimeMs = duration("think-time", "0ms").toMillis();
+        this.http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, operation.defaultWeight);
+            stats.put(operation, new Stats());
+        }
+        if (options.containsKey("mix")) {
+            weights.replaceAll((operation, weight) -> 0);
+            for (String entry : options.get("mix").split(",")) {
+                String[] parts = entry.split("=");
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+            }
+        }
+        int total = 0;
+        for (Operation operation : Operation.values()) {
+            total += weights.get(operation);
+            cumulativeWeights[operation.ordinal()] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("mix must have at least one positive weight");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Options are given as --name=value: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadTest(options).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        ConfigurableApplicationContext context = null;
+        Statistics statistics = null;
+        if (options.containsKey("url")) {
+            baseUrl = options.get("url").replaceAll("/+$", "");
+        } else {
+            context = startServer();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        }
+
+        try {
+            vehicleCount = countVehicles();
+            accounts = createAccounts(Integer.parseInt(options.getOrDefault("users", "100")));
+
+            int clients = Integer.parseInt(options.getOrDefault("clients", "100"));
+            Duration warmup = duration("warmup", "10s");
+            Duration measured = duration("duration", "60s");
+            System.out.printf("Driving %s with %d clients, %d vehicles, %s warm-up and %s measured%n",
+                    baseUrl, clients, vehicleCount, warmup, measured);
+
+            long measureFrom = System.nanoTime() + warmup.toNanos();
+            long measureUntil = measureFrom + measured.toNanos();
+            long statementsBefore = 0;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < clients; i++) {
+                    Client client = new Client(accounts.get(i % accounts.size()));
+                    executor.submit(() -> client.run(measureFrom, measureUntil));
+                }
+                if (statistics != null) {
+                    sleepUntil(measureFrom);
+                    statementsBefore = statistics.getPrepareStatementCount();
+                }
+            }
+            Long statements = statistics == null ? null : statistics.getPrepareStatementCount() - statementsBefore;
+            report(clients, measured, statements);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startServer() {
+        List<String> properties = new ArrayList<>(List.of(
+                // All clients share one address, which the per-address login limit would throttle
+                "vehicle.security.rate-limit.enabled=false",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "spring.threads.virtual.enabled=" + options.getOrDefault("virtual-threads", "false")
+        ));
+        options.forEach((name, value) -> {
+            if (name.startsWith("app.")) {
+                properties.add(name.substring(4) + "=" + value);
+            }
+        });
+        int vehicles = Integer.parseInt(options.getOrDefault("vehicles", "10000"));
+        return BenchmarkApplication.start(vehicles, properties.toArray(String[]::new));
+    }
+
+    private long countVehicles() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/vehicles?page=0&size=1")).GET().build());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Catalog request failed with status " + response.statusCode());
+        }
+        JsonNode page = objectMapper.readTree(response.body());
+        JsonNode total = page.has("totalElements") ? page.get("totalElements") : page.path("page").path("totalElements");
+        if (total.asLong() == 0) {
+            throw new IllegalStateException("The catalog is empty");
+        }
+        return total.asLong();
+    }
+
+    /**
+     * Signs up the accounts the clients share, falling back to a login for
+     * accounts left over from an earlier run against the same server.
+     */
+    private List<Account> createAccounts(int count) throws InterruptedException, ExecutionException {
+        List<Future<Account>> futures = new ArrayList<>();
+        // Stay below the bcrypt queue so sign-ups are not rejected
+        Semaphore permits = new Semaphore(16);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                String email = "load-" + i + "@example.com";
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        Map<String, String> signup = Map.of(
+                                "firstName", "Load", "lastName", "Test", "email", email, "password", PASSWORD);
+                        HttpResponse<String> response = send(post("/api/auth/signup", null, signup));
+                        if (response.statusCode() != 200) {
+                            response = send(post("/api/auth/login", null, Map.of("email", email, "password", PASSWORD)));
+                        }
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("Could not sign up or log in " + email
+                                    + ": " + response.statusCode() + " " + response.body());
+                        }
+                        return new Account(email, objectMapper.readTree(response.body()).path("token").asText());
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+        List<Account> created = new ArrayList<>();
+        for (Future<Account> future : futures) {
+            created.add(future.get());
+        }
+        return created;
+    }
+
+    private void report(int clients, Duration measured, Long statements) throws IOException {
+        double seconds = measured.toMillis() / 1000.0;
+        ObjectNode result = objectMapper.createObjectNode();
+        ObjectNode config = result.putObject("config");
+        config.put("url", baseUrl);
+        config.put("clients", clients);
+        config.put("durationSeconds", seconds);
+        config.put("vehicles", vehicleCount);
+        config.put("users", accounts.size());
+        config.put("etag", etag);
+        config.put("thinkTimeMs", thinkTimeMs);
+        if (!options.containsKey("url")) {
+            config.put("virtualThreads", Boolean.parseBoolean(options.getOrDefault("virtual-threads", "false")));
+        }
+
+        System.out.printf("%n%-10s %10s %10s %10s %10s %10s %8s %8s%n",
+                "Endpoint", "Requests", "Req/s", "p50 ms", "p99 ms", "p99.9 ms", "Errors", "304s");
+        ArrayNode endpoints = result.putArray("endpoints");
+        Histogram all = new Histogram(3);
+        long requests = 0;
+        long errors = 0;
+        for (Operation operation : Operation.values()) {
+            Stats endpoint = stats.get(operation);
+            Histogram latency = endpoint.latency.copy();
+            all.add(latency);
+            requests += latency.getTotalCount();
+            errors += endpoint.errors.sum();
+            endpoints.add(row(operation.name().toLowerCase(Locale.ROOT), latency, endpoint.errors.sum(),
+                    endpoint.notModified.sum(), seconds));
+        }
+        ObjectNode total = row("total", all, errors, stats.values().stream().mapToLong(s -> s.notModified.sum()).sum(), seconds);
+        if (statements != null) {
+            total.put("sqlStatements", statements);
+            total.put("sqlStatementsPerRequest", requests == 0 ? 0 : (double) statements / requests);
+            System.out.printf("%nSQL statements: %d (%.3f per request)%n", statements, requests == 0 ? 0 : (double) statements / requests);
+        }
+        result.set("total", total);
+        Map<String, Long> statuses = new TreeMap<>();
+        stats.values().forEach(s -> s.statuses.forEach((status, count) -> statuses.merge(String.valueOf(status), count.sum(), Long::sum)));
+        result.set("statuses", objectMapper.valueToTree(statuses));
+        System.out.println("Status codes: " + statuses);
+
+        File out = new File(options.getOrDefault("out", "target/load-result.json"));
+        if (out.getParentFile() != null) {
+            out.getParentFile().mkdirs();
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(out, result);
+        System.out.println("Report written to " + out);
+    }
+
+    private ObjectNode row(String name, Histogram latency, long errors, long notModified, double seconds) {
+        long count = latency.getTotalCount();
+        double p50 = latency.getValueAtPercentile(50) / 1000.0;
+        double p99 = latency.getValueAtPercentile(99) / 1000.0;
+        double p999 = latency.getValueAtPercentile(99.9) / 1000.0;
+        double errorRate = count == 0 ? 0 : (double) errors / count;
+        System.out.printf("%-10s %10d %10.1f %10.2f %10.2f %10.2f %7.2f%% %8d%n",
+                name, count, count / seconds, p50, p99, p999, errorRate * 100, notModified);
+        ObjectNode row = objectMapper.createObjectNode();
+        row.put("endpoint", name);
+        row.put("requests", count);
+        row.put("throughput", count / seconds);
+        row.put("p50Ms", p50);
+        row.put("p99Ms", p99);
+        row.put("p999Ms", p999);
+        row.put("errorRate", errorRate);
+        row.put("notModified", notModified);
+        return row;
+    }
+
+    private Operation pick(ThreadLocalRandom random) {
+        int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (Operation operation : Operation.values()) {
+            if (ticket < cumulativeWeights[operation.ordinal()]) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest post(String path, String token, Object body) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private Duration duration(String option, String defaultValue) {
+        return DurationStyle.detectAndParse(options.getOrDefault(option, defaultValue));
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    private record Account(String email, String token) {
+    }
+
+    private static final class Stats {
+        // Microseconds, up to one minute
+        private final Histogram latency = new ConcurrentHistogram(60_000_000L, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder notModified = new LongAdder();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        private void record(long micros, int status) {
+            latency.recordValue(Math.min(micros, latency.getHighestTrackableValue()));
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+            if (status == 304) {
+                notModified.increment();
+            } else if (status < 200 || status >= 400) {
+                errors.increment();
+            }
+        }
+    }
+
+    /**
+     * One simulated user. Catalog ETags are remembered per client, as a
+     * browser cache would.
+     */
+    private final class Client {
+        private final Account account;
+        private final Map<String, String> etags = new HashMap<>();
+
+        private Client(Account account) {
+            this.account = account;
+        }
+
+        private void run(long measureFrom, long measureUntil) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < measureUntil) {
+                Operation operation = pick(random);
+                long start = System.nanoTime();
+                int status;
+                try {
+                    status = execute(operation, random);
+                } catch (IOException e) {
+                    // Connection failures and timeouts count as errors
+                    status = -1;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long end = System.nanoTime();
+                if (start >= measureFrom && end <= measureUntil) {
+                    stats.get(operation).record((end - start) / 1000, status);
+                }
+                if (thinkTimeMs > 0) {
+                    try {
+                        Thread.sleep(thinkTimeMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        private int execute(Operation operation, ThreadLocalRandom random) throws IOException, InterruptedException {
+            return switch (operation) {
+                case BROWSE -> catalog("/api/vehicles?page=" + random.nextInt(20) + "&size=10&sortBy=id&sortDir=asc");
+                case FILTER -> catalog("/api/vehicles?page=0&size=10&sortBy=price&sortDir=desc"
+                        + "&brand=" + BenchmarkApplication.BRANDS[random.nextInt(BenchmarkApplication.BRANDS.length)]
+                        + "&minPrice=" + (20_000 + 10_000 * random.nextInt(4))
+                        + "&maxPrice=" + (60_000 + 10_000 * random.nextInt(4))
+                        + "&type=" + TYPES[random.nextInt(TYPES.length)]
+                        + "&fuelType=" + FUEL_TYPES[random.nextInt(FUEL_TYPES.length)]);
+                case DETAIL -> catalog("/api/vehicles/" + (1 + random.nextLong(vehicleCount)));
+                case LOGIN -> send(post("/api/auth/login", null,
+                        Map.of("email", account.email(), "password", PASSWORD))).statusCode();
+                case HISTORY -> send(HttpRequest.newBuilder(uri("/api/orders?page=0&size=10&sortBy=createdAt&sortDir=desc"))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Authorization", "Bearer " + account.token())
+                        .GET().build()).statusCode();
+                case CHECKOUT -> send(post("/api/orders", account.token(), Map.of(
+                        "shippingAddress", "123 Main St, City, Country",
+                        "items", List.of(Map.of("vehicleId", 1 + random.nextLong(vehicleCount), "quantity", 1))
+                ))).statusCode();
+            };
+        }
+
+        private int catalog(String path) throws IOException, InterruptedException {
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(30)).GET();
+            String known = etag ? etags.get(path) : null;
+            if (known != null) {
+                request.header("If-None-Match", known);
+            }
+            HttpResponse<String> response = send(request.build());
+            if (etag && response.statusCode() == 200) {
+                response.headers().firstValue("ETag").ifPresent(value -> etags.put(path, value));
+            }
+            return response.statusCode();
+        }
+    }
+}
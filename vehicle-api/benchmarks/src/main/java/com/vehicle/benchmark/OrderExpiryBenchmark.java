@@ -0,0 +1,129 @@
+package com.vehicle.benchmark;
+
+import com.vehicle.entity.Role;
+import com.vehicle.entity.User;
+import com.vehicle.repository.UserRepository;
+import com.vehicle.service.OrderExpirySweeper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * One sweep over {@code orders} expired PENDING orders of {@code lines}
+ * lines each, spread over {@code vehicles} vehicles, in each inventory mode.
+ * The orders are inserted before every iteration and are not timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrderExpiryBenchmark {
+
+    private static final String INSERT_ORDER =
+            "INSERT INTO orders (id, user_id, shipping_address, total_amount, status, created_at) " +
+            "VALUES (?, ?, '1 Benchmark Way', 100.00, 'PENDING', ?)";
+    private static final String INSERT_SUMMARY =
+            "INSERT INTO order_summaries (order_id, user_id, status, total_amount, item_count, created_at) " +
+            "VALUES (?, ?, 'PENDING', 100.00, ?, ?)";
+    private static final String INSERT_ITEM =
+            "INSERT INTO order_items (id, order_id, vehicle_id, quantity, price_per_unit, total_price) " +
+            "VALUES (?, ?, ?, 1, 100.00, 100.00)";
+    // Well above the ids the sequences hand out to the application
+    private static final long FIRST_ID = 1_000_000_000L;
+
+    @Param({"1000"})
+    int vehicles;
+
+    @Param({"LEDGER", "DATABASE"})
+    String mode;
+
+    @Param({"100000"})
+    int orders;
+
+    @Param({"3"})
+    int lines;
+
+    @Param({"1000", "10000"})
+    int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private OrderExpirySweeper sweeper;
+    private JdbcTemplate jdbcTemplate;
+    private Long userId;
+    private long nextId = FIRST_ID;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(vehicles,
+                "vehicle.inventory.mode=" + mode,
+                "vehicle.orders.confirm-on-checkout=false",
+                "vehicle.orders.expiry.pending-ttl-ms=60000",
+                "vehicle.orders.expiry.sweep-interval-ms=86400000",
+                "vehicle.orders.expiry.batch-size=" + batchSize);
+        sweeper = context.getBean(OrderExpirySweeper.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userId = context.getBean(UserRepository.class).save(User.builder()
+                .firstName("Bench")
+                .lastName("Mark")
+                .email("bench@example.com")
+                .password("x")
+                .role(Role.USER)
+                .build()).getId();
+    }
+
+    @Setup(Level.Iteration)
+    public void insertExpiredOrders() {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        long firstOrder = nextId;
+        nextId += orders;
+        jdbcTemplate.batchUpdate(INSERT_ORDER, LongStream.range(firstOrder, firstOrder + orders).boxed().toList(),
+                1000, (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setLong(2, userId);
+                    ps.setTimestamp(3, createdAt);
+                });
+        jdbcTemplate.batchUpdate(INSERT_SUMMARY, LongStream.range(firstOrder, firstOrder + orders).boxed().toList(),
+                1000, (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setLong(2, userId);
+                    ps.setInt(3, lines);
+                    ps.setTimestamp(4, createdAt);
+                });
+
+        List<long[]> items = new ArrayList<>(orders * lines);
+        for (long order = firstOrder; order < firstOrder + orders; order++) {
+            for (int line = 0; line < lines; line++) {
+                long vehicle = (order * lines + line) % vehicles + 1;
+                items.add(new long[]{nextId++, order, vehicle});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM, items, 1000, (ps, item) -> {
+            ps.setLong(1, item[0]);
+            ps.setLong(2, item[1]);
+            ps.setLong(3, item[2]);
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int sweep() {
+        int cancelled = sweeper.sweep();
+        if (cancelled != orders) {
+            throw new IllegalStateException("Expected " + orders + " expired orders, cancelled " + cancelled);
+        }
+        return cancelled;
+    }
+}
@@ -0,0 +1,78 @@
+package com.vehicle.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicle.entity.Role;
+import com.vehicle.entity.User;
+import com.vehicle.service.AuthenticationMetrics;
+import com.vehicle.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through {@link JwtAuthenticationFilter}, with and
+ * without the verified token cache and in both authentication modes. The
+ * user lookup is an in-memory stand-in, so the numbers exclude the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String KEYS = "default:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    @Param({"true", "false"})
+    boolean tokenCache;
+
+    @Param({"DATABASE", "CLAIMS"})
+    AuthenticationMode mode;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtService jwtService = new JwtService(KEYS, "default", registry);
+        User user = User.builder().id(42L).firstName("Ada").lastName("Lovelace")
+                .email("ada@example.com").password("x").role(Role.USER).build();
+        UserDetailsService users = username -> user;
+
+        filter = new JwtAuthenticationFilter(
+                jwtService,
+                users,
+                new ObjectMapper(),
+                new VerifiedTokenCache(tokenCache, 10_000, 300_000),
+                new TokenRevocationList(1 << 20),
+                new AuthenticationMetrics(registry)
+        );
+        ReflectionTestUtils.setField(filter, "authenticationMode", mode);
+        authorization = "Bearer " + jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public int authenticate() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.setServletPath("/api/orders");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return response.getStatus();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.vehicle.service;
+
+import com.vehicle.repository.VehicleRepository;
+import com.vehicle.repository.VehicleStock;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserve and confirm on the in-memory ledger, either with every thread on
+ * the same vehicle or spread over many. Run with {@code -t <threads>} to see
+ * the cost of contention on a hot vehicle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryLedgerBenchmark {
+
+    private static final int STOCK = 1_000_000_000;
+
+    @Param({"1", "1000"})
+    int vehicles;
+
+    private InventoryLedger ledger;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ledger = new InventoryLedger(stockRepository());
+        for (long id = 1; id <= vehicles; id++) {
+            ledger.confirm(ledger.reserve(Map.of(id, 1)));
+        }
+    }
+
+    @Benchmark
+    public InventoryLedger.Reservation reserveAndConfirm() {
+        long vehicleId = vehicles == 1 ? 1 : 1 + ThreadLocalRandom.current().nextInt(vehicles);
+        InventoryLedger.Reservation reservation = ledger.reserve(Map.of(vehicleId, 1));
+        ledger.confirm(reservation);
+        return reservation;
+    }
+
+    /**
+     * Repository stand-in that only answers the stock lookup the ledger makes
+     * the first time it sees a vehicle.
+     */
+    private static VehicleRepository stockRepository() {
+        return (VehicleRepository) Proxy.newProxyInstance(
+                VehicleRepository.class.getClassLoader(),
+                new Class<?>[]{VehicleRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findStockById")) {
+                        Long id = (Long) args[0];
+                        return Optional.of(new VehicleStock() {
+                            @Override
+                            public Long getId() {
+                                return id;
+                            }
+
+                            @Override
+                            public Integer getQuantityAvailable() {
+                                return STOCK;
+                            }
+
+                            @Override
+                            public Long getVersion() {
+                                return 0L;
+                            }
+                        });
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
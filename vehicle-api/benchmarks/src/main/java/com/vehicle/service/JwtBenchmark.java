@@ -0,0 +1,58 @@
+package com.vehicle.service;
+
+import com.vehicle.entity.Role;
+import com.vehicle.entity.User;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing and full verification of access tokens, the per-request cost of
+ * every authenticated call that misses the verified token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String KEYS = "default:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+    private String forged;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(KEYS, "default", new SimpleMeterRegistry());
+        user = User.builder().id(42L).firstName("Ada").lastName("Lovelace")
+                .email("ada@example.com").password("x").role(Role.USER).build();
+        token = jwtService.generateToken(user);
+        char last = token.charAt(token.length() - 1);
+        forged = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public TokenClaims verify() {
+        return jwtService.parse(token);
+    }
+
+    @Benchmark
+    public Object rejectForged() {
+        try {
+            return jwtService.parse(forged);
+        } catch (JwtException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.vehicle.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicle.dto.OrderResponse;
+import com.vehicle.dto.VehicleDTO;
+import com.vehicle.entity.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping and JSON serialization of catalog and order responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int orderItems;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private Vehicle vehicle;
+    private VehicleDTO vehicleDTO;
+    private PagedModel<VehicleDTO> page;
+    private Order order;
+    private OrderResponse orderResponse;
+
+    @Setup
+    public void setUp() {
+        vehicle = vehicle(1);
+        vehicleDTO = VehicleService.mapToDTO(vehicle);
+
+        List<VehicleDTO> content = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            content.add(VehicleService.mapToDTO(vehicle(i)));
+        }
+        page = new PagedModel<>(new PageImpl<>(content, PageRequest.of(0, 20), 100_000));
+
+        User user = User.builder().id(1L).firstName("Ada").lastName("Lovelace")
+                .email("ada@example.com").password("x").role(Role.USER).build();
+        order = Order.builder()
+                .id(1L)
+                .user(user)
+                .shippingAddress("1 Infinite Loop, Cupertino")
+                .status(OrderStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .items(new ArrayList<>())
+                .build();
+        BigDecimal total = BigDecimal.ZERO;
+        for (long i = 1; i <= orderItems; i++) {
+            Vehicle item = vehicle(i);
+            BigDecimal line = item.getPrice().multiply(BigDecimal.valueOf(2));
+            order.getItems().add(OrderItem.builder()
+                    .id(i)
+                    .order(order)
+                    .vehicle(item)
+                    .quantity(2)
+                    .pricePerUnit(item.getPrice())
+                    .totalPrice(line)
+                    .build());
+            total = total.add(line);
+        }
+        order.setTotalAmount(total);
+        orderResponse = OrderService.mapToOrderResponse(order);
+    }
+
+    @Benchmark
+    public VehicleDTO mapVehicle() {
+        return VehicleService.mapToDTO(vehicle);
+    }
+
+    @Benchmark
+    public String serializeVehicle() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(vehicleDTO);
+    }
+
+    @Benchmark
+    public String serializeVehiclePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(page);
+    }
+
+    @Benchmark
+    public OrderResponse mapOrder() {
+        return OrderService.mapToOrderResponse(order);
+    }
+
+    @Benchmark
+    public String serializeOrder() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(orderResponse);
+    }
+
+    private static Vehicle vehicle(long id) {
+        return Vehicle.builder()
+                .id(id)
+                .name("Toyota Camry " + id)
+                .model("Camry")
+                .brand("Toyota")
+                .year(2024)
+                .color("Silver")
+                .price(new BigDecimal("28999.99"))
+                .quantityAvailable(12)
+                .description("Reliable mid-size sedan with a hybrid drivetrain and a spacious cabin")
+                .imageUrl("https://images.example.com/" + id + ".jpg")
+                .type(VehicleType.SEDAN)
+                .fuelType(FuelType.HYBRID)
+                .build();
+    }
+}
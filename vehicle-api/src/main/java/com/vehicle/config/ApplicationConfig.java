@@ -2,12 +2,14 @@ package com.vehicle.config;
 
 import com.vehicle.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -19,6 +21,9 @@ public class ApplicationConfig {
 
     private final UserRepository userRepository;
 
+    @Value("${vehicle.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public UserDetailsService userDetailsService() {
         return username -> userRepository.findByEmail(username)
@@ -30,9 +35,24 @@ public class ApplicationConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
         return authProvider;
     }
 
+    /**
+     * Stores the rehashed password when a user logs in with a hash weaker
+     * than the configured bcrypt strength.
+     */
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (user, newPassword) -> userRepository.findByEmail(user.getUsername())
+                .map(stored -> {
+                    stored.setPassword(newPassword);
+                    return userRepository.save(stored);
+                })
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
@@ -40,6 +60,6 @@ public class ApplicationConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 } 
\ No newline at end of file
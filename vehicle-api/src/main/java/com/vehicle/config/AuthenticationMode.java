@@ -0,0 +1,18 @@
+package com.vehicle.config;
+
+/**
+ * How {@link JwtAuthenticationFilter} resolves the principal of a request.
+ */
+public enum AuthenticationMode {
+    /**
+     * Load the user from the database for every token not in the verified
+     * token cache.
+     */
+    DATABASE,
+    /**
+     * Build the principal from the token claims for read-only requests.
+     * Requests that change state, admin endpoints and tokens issued without
+     * the profile claims still load the user from the database.
+     */
+    CLAIMS
+}
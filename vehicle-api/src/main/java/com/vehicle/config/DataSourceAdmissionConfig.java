@@ -0,0 +1,60 @@
+package com.vehicle.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts an {@link AdmissionLimitedDataSource} in front of the connection pool.
+ * <p>
+ * With virtual threads every request gets its own thread, so the number of
+ * threads that can ask for a connection at once is no longer capped by the
+ * Tomcat pool. The limit defaults to the Hikari pool size, so admitted callers
+ * always find a free connection and everyone else queues outside the pool.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "vehicle.datasource.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceAdmissionConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceAdmissionPostProcessor(Environment environment) {
+        int maxConcurrent = environment.getProperty("vehicle.datasource.admission.max-concurrent", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        long timeoutMs = environment.getProperty("vehicle.datasource.admission.timeout-ms", Long.class, 10000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof AdmissionLimitedDataSource)) {
+                    log.info("Limiting data source '{}' to {} concurrent connections", beanName, maxConcurrent);
+                    return new AdmissionLimitedDataSource(dataSource, maxConcurrent, timeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder dataSourceAdmissionMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof AdmissionLimitedDataSource limited) {
+                Gauge.builder("vehicle.datasource.admission.active", limited, AdmissionLimitedDataSource::getActive)
+                        .description("Callers holding a connection admission permit")
+                        .register(registry);
+                Gauge.builder("vehicle.datasource.admission.waiting", limited, AdmissionLimitedDataSource::getWaiting)
+                        .description("Callers queued for a connection admission permit")
+                        .register(registry);
+                Gauge.builder("vehicle.datasource.admission.max", limited, AdmissionLimitedDataSource::getMaxConcurrent)
+                        .register(registry);
+            }
+        };
+    }
+}
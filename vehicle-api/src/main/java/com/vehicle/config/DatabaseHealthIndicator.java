@@ -0,0 +1,90 @@
+package com.vehicle.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Database health from a timed connection round trip and the saturation of
+ * the connection pool.
+ * <p>
+ * The database is {@code DOWN} if the probe fails and {@code DEGRADED} if it
+ * is slower than {@code vehicle.health.db.latency-warn-ms} or the pool is
+ * nearly exhausted. While callers are already queueing for connections the
+ * probe is skipped, so health checks do not add to the queue.
+ */
+@Component("database")
+public class DatabaseHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Database is slow or the pool is saturated");
+
+    private final DataSource dataSource;
+
+    @Value("${vehicle.health.db.latency-warn-ms:250}")
+    private long latencyWarnMs;
+
+    @Value("${vehicle.health.db.saturation-warn:0.9}")
+    private double saturationWarn;
+
+    @Value("${vehicle.health.db.timeout-seconds:2}")
+    private int timeoutSeconds;
+
+    public DatabaseHealthIndicator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = Health.up();
+        double saturation = 0;
+        int waiting = 0;
+
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        HikariPoolMXBean pool = hikari == null ? null : hikari.getHikariPoolMXBean();
+        if (pool != null) {
+            int max = hikari.getMaximumPoolSize();
+            saturation = (double) pool.getActiveConnections() / max;
+            waiting = pool.getThreadsAwaitingConnection();
+            builder.withDetail("pool.active", pool.getActiveConnections())
+                    .withDetail("pool.idle", pool.getIdleConnections())
+                    .withDetail("pool.max", max)
+                    .withDetail("pool.waiting", waiting);
+        }
+        if (dataSource instanceof AdmissionLimitedDataSource limited) {
+            saturation = Math.max(saturation, (double) limited.getActive() / limited.getMaxConcurrent());
+            waiting += limited.getWaiting();
+            builder.withDetail("admission.active", limited.getActive())
+                    .withDetail("admission.waiting", limited.getWaiting());
+        }
+        builder.withDetail("pool.saturation", Math.round(saturation * 100) / 100.0);
+
+        if (waiting > 0) {
+            return builder.status(DEGRADED).withDetail("probe", "skipped, callers are waiting for connections").build();
+        }
+
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(timeoutSeconds)) {
+                return builder.down().withDetail("probe", "connection is not valid").build();
+            }
+        } catch (SQLException e) {
+            return builder.down(e).build();
+        }
+        long latencyMs = (System.nanoTime() - start) / 1_000_000;
+        builder.withDetail("latencyMs", latencyMs);
+
+        if (latencyMs > latencyWarnMs || saturation >= saturationWarn) {
+            builder.status(DEGRADED);
+        }
+        return builder.build();
+    }
+}
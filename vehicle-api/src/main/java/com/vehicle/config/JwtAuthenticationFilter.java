@@ -1,12 +1,18 @@
 package com.vehicle.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicle.entity.Role;
+import com.vehicle.entity.User;
+import com.vehicle.service.AuthenticationMetrics;
 import com.vehicle.service.JwtService;
+import com.vehicle.service.TokenClaims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
@@ -20,16 +26,30 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    // Admin-only reads, where a role revoked since the token was issued must not count
+    private static final String ADMIN_PATH_PREFIX = "/api/admin/";
+    private static final Set<String> ADMIN_PATHS = Set.of("/api/orders/export");
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
     private final ObjectMapper objectMapper;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList revocationList;
+    private final AuthenticationMetrics authenticationMetrics;
+
+    @Value("${vehicle.security.authentication-mode:DATABASE}")
+    private AuthenticationMode authenticationMode;
 
     @Override
     protected void doFilterInternal(
@@ -51,33 +71,98 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
 
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
-            
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                try {
-                    UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                    if (jwtService.isTokenValid(jwt, userDetails)) {
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                        authToken.setDetails(
-                                new WebAuthenticationDetailsSource().buildDetails(request)
-                        );
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
+            if (revocationList.isRevoked(jwt)) {
+                authenticationMetrics.failure(AuthenticationMetrics.Reason.REVOKED_TOKEN);
+                sendErrorResponse(response, HttpStatus.UNAUTHORIZED, "Token has been revoked");
+                return;
+            }
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = verifiedTokenCache.get(jwt);
+                if (userDetails == null && authenticationMode == AuthenticationMode.CLAIMS
+                        && trustsClaims(request)) {
+                    userDetails = principalFromClaims(jwt);
+                }
+                if (userDetails == null) {
+                    try {
+                        userDetails = verifyToken(jwt);
+                    } catch (UsernameNotFoundException e) {
+                        authenticationMetrics.failure(AuthenticationMetrics.Reason.INVALID_TOKEN);
+                        sendErrorResponse(response, HttpStatus.UNAUTHORIZED, "Invalid or expired token");
+                        return;
                     }
-                } catch (UsernameNotFoundException e) {
-                    sendErrorResponse(response, HttpStatus.UNAUTHORIZED, "Invalid or expired token");
-                    return;
+                }
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
+                    authToken.setDetails(
+                            new WebAuthenticationDetailsSource().buildDetails(request)
+                    );
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
             filterChain.doFilter(request, response);
         } catch (Exception e) {
+            if (e instanceof JwtException) {
+                authenticationMetrics.failure(AuthenticationMetrics.Reason.INVALID_TOKEN);
+            }
             sendErrorResponse(response, HttpStatus.UNAUTHORIZED, "Authentication failed: " + e.getMessage());
         }
     }
 
+    /**
+     * Full verification for tokens that are not in the cache yet: signature,
+     * expiry and user lookup. Valid tokens are cached for later requests.
+     *
+     * @return the resolved user, or null if the token is not valid for it
+     */
+    private UserDetails verifyToken(String jwt) {
+        final TokenClaims claims = jwtService.parse(jwt);
+        if (claims.subject() == null) {
+            return null;
+        }
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.subject());
+        if (!jwtService.isTokenValid(claims, userDetails)) {
+            authenticationMetrics.failure(AuthenticationMetrics.Reason.INVALID_TOKEN);
+            return null;
+        }
+        verifiedTokenCache.put(jwt, userDetails, Date.from(claims.expiresAt()));
+        return userDetails;
+    }
+
+    /**
+     * Claims are trusted for read-only requests outside the admin endpoints.
+     */
+    private static boolean trustsClaims(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return SAFE_METHODS.contains(request.getMethod())
+                && !path.startsWith(ADMIN_PATH_PREFIX)
+                && !ADMIN_PATHS.contains(path);
+    }
+
+    /**
+     * Builds a detached {@link User} from the token alone, without a database
+     * lookup. It has no password and must not be saved.
+     *
+     * @return the principal, or null if the token lacks the profile claims
+     */
+    private UserDetails principalFromClaims(String jwt) {
+        final TokenClaims claims = jwtService.parse(jwt);
+        if (claims.subject() == null || claims.userId() == null || claims.roles().isEmpty()
+                || claims.isExpired(Instant.now())) {
+            return null;
+        }
+        return User.builder()
+                .id(claims.userId())
+                .email(claims.subject())
+                .firstName(claims.firstName())
+                .lastName(claims.lastName())
+                .role(Role.valueOf(claims.roles().get(0)))
+                .build();
+    }
+
     private void sendErrorResponse(HttpServletResponse response, HttpStatus status, String message) throws IOException {
         response.setStatus(status.value());
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
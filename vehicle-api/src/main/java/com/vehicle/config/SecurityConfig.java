@@ -1,5 +1,6 @@
 package com.vehicle.config;
 
+import com.vehicle.entity.Role;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,8 +33,12 @@ public class SecurityConfig {
                 .requestMatchers(
                     "/api/auth/**",
                     "/api/health",
-                    "/api/vehicles/**"  // Making all vehicle endpoints public
+                    "/api/vehicles/**",  // Making all vehicle endpoints public
+                    "/actuator/health/**",
+                    "/actuator/info"
                 ).permitAll()
+                .requestMatchers("/actuator/**").hasAuthority(Role.ADMIN.name())
+                .requestMatchers("/api/orders/export", "/api/admin/**").hasAuthority(Role.ADMIN.name())
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
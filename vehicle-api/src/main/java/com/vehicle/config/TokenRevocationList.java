@@ -0,0 +1,116 @@
+package com.vehicle.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory list of revoked tokens, checked on every authenticated request.
+ * <p>
+ * Revoked tokens are kept, by SHA-256 hash, in a map until their own expiry,
+ * after which they would be rejected anyway. A Bloom filter over the same
+ * hashes answers the common "not revoked" case without touching the map. A
+ * Bloom filter cannot forget entries, so it is rebuilt from the map whenever
+ * expired entries are purged. The list is local to this instance.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final int HASHES = 5;
+
+    private final int bits;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile AtomicLongArray filter;
+
+    public TokenRevocationList(@Value("${vehicle.security.revocation.bloom-bits:1048576}") int bits) {
+        this.bits = bits;
+        this.filter = new AtomicLongArray((bits + 63) / 64);
+    }
+
+    /**
+     * Rejects the token until {@code expiresAt}.
+     */
+    public void revoke(String token, Instant expiresAt) {
+        byte[] digest = digest(token);
+        lock.lock();
+        try {
+            revoked.put(Base64.getEncoder().encodeToString(digest), expiresAt);
+            add(filter, digest);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isRevoked(String token) {
+        byte[] digest = digest(token);
+        if (!mightContain(filter, digest)) {
+            return false;
+        }
+        Instant expiresAt = revoked.get(Base64.getEncoder().encodeToString(digest));
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${vehicle.security.revocation.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        lock.lock();
+        try {
+            if (!revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now))) {
+                return;
+            }
+            AtomicLongArray rebuilt = new AtomicLongArray(filter.length());
+            revoked.keySet().forEach(key -> add(rebuilt, Base64.getDecoder().decode(key)));
+            filter = rebuilt;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(AtomicLongArray target, byte[] digest) {
+        for (int i = 0; i < HASHES; i++) {
+            int bit = bit(digest, i);
+            long mask = 1L << (bit & 63);
+            target.getAndUpdate(bit >>> 6, word -> word | mask);
+        }
+    }
+
+    private boolean mightContain(AtomicLongArray target, byte[] digest) {
+        for (int i = 0; i < HASHES; i++) {
+            int bit = bit(digest, i);
+            if ((target.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The digest is already uniformly distributed, so each hash function is
+     * just a different four-byte slice of it.
+     */
+    private int bit(byte[] digest, int hash) {
+        int offset = hash * 4;
+        int value = (digest[offset] & 0xff) << 24 | (digest[offset + 1] & 0xff) << 16
+                | (digest[offset + 2] & 0xff) << 8 | (digest[offset + 3] & 0xff);
+        return Math.floorMod(value, bits);
+    }
+
+    private static byte[] digest(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
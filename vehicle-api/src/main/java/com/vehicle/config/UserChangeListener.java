@@ -0,0 +1,38 @@
+package com.vehicle.config;
+
+import com.vehicle.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Drops the verified tokens of a user whose record changed, e.g. a new role
+ * or password, so the next request loads the current record instead of the
+ * cached one. Runs after commit, so a request racing the change cannot
+ * cache the old record again.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserChangeListener {
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        String username = user.getUsername();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            verifiedTokenCache.invalidateUser(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                verifiedTokenCache.invalidateUser(username);
+            }
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package com.vehicle.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of JWTs that have already been verified, mapped to the
+ * principal they resolved to.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the token so raw tokens are never
+ * held in memory, and expire at the token's own expiry or after
+ * {@code vehicle.security.token-cache.max-ttl-ms}, whichever comes first.
+ * The TTL cap bounds how long a changed user record can be served stale.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final long maxTtlNanos;
+    private final Cache<String, CachedPrincipal> cache;
+
+    public VerifiedTokenCache(
+            @Value("${vehicle.security.token-cache.enabled:true}") boolean enabled,
+            @Value("${vehicle.security.token-cache.max-size:10000}") long maxSize,
+            @Value("${vehicle.security.token-cache.max-ttl-ms:300000}") long maxTtlMs
+    ) {
+        this.enabled = enabled;
+        this.maxTtlNanos = TimeUnit.MILLISECONDS.toNanos(maxTtlMs);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return the principal the token was verified for, or null on a miss
+     */
+    public UserDetails get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        CachedPrincipal cached = cache.getIfPresent(hash(token));
+        if (cached == null || cached.expiresAt() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return cached.userDetails();
+    }
+
+    public void put(String token, UserDetails userDetails, Date expiration) {
+        if (enabled) {
+            cache.put(hash(token), new CachedPrincipal(userDetails, expiration.getTime()));
+        }
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(hash(token));
+    }
+
+    /**
+     * Drops every cached token of a user, e.g. after the account changed.
+     */
+    public void invalidateUser(String username) {
+        cache.asMap().values().removeIf(cached -> cached.userDetails().getUsername().equals(username));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "verifiedTokens");
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedPrincipal(UserDetails userDetails, long expiresAt) {
+    }
+
+    private class TokenExpiry implements Expiry<String, CachedPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+            long untilTokenExpiry = TimeUnit.MILLISECONDS.toNanos(value.expiresAt() - System.currentTimeMillis());
+            return Math.max(0, Math.min(untilTokenExpiry, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
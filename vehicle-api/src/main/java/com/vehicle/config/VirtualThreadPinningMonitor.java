@@ -0,0 +1,80 @@
+package com.vehicle.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, typically while
+ * blocking inside a {@code synchronized} block or a native frame.
+ * <p>
+ * A pinned thread holds a carrier out of the small carrier pool, so a few of
+ * them under load can stall every request. The JVM emits a
+ * {@code jdk.VirtualThreadPinned} event when pinning lasts longer than the
+ * threshold; each one is counted and logged with the top of its stack.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Counter pinned;
+
+    @Value("${vehicle.threads.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry) {
+        this.pinned = Counter.builder("vehicle.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier for longer than the threshold")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {} ms", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        String frames = event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::describe)
+                .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        log.warn("Virtual thread {} was pinned for {} ms{}",
+                event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                event.getDuration().toMillis(), frames);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -26,7 +26,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOriginPatterns("*") // More flexible than allowedOrigins
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH", "HEAD")
                 .allowedHeaders("*")
-                .exposedHeaders("Authorization")
+                .exposedHeaders("Authorization", "ETag")
                 .allowCredentials(true)
                 .maxAge(3600); // 1 hour
     }
@@ -51,8 +51,8 @@ public class WebConfig implements WebMvcConfigurer {
         // Allow all headers
         config.setAllowedHeaders(Collections.singletonList("*"));
         
-        // Expose the Authorization header to the client
-        config.setExposedHeaders(Arrays.asList("Authorization"));
+        // Expose the Authorization and ETag headers to the client
+        config.setExposedHeaders(Arrays.asList("Authorization", "ETag"));
         
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
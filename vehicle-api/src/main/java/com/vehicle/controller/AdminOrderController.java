@@ -0,0 +1,40 @@
+package com.vehicle.controller;
+
+import com.vehicle.dto.OrderStatusRequest;
+import com.vehicle.service.OrderService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/orders")
+@RequiredArgsConstructor
+public class AdminOrderController {
+
+    private final OrderService orderService;
+
+    /**
+     * Queues a status change, e.g. to SHIPPED once the order has left the
+     * warehouse. The order pipeline applies it shortly after.
+     */
+    @PostMapping("/{id}/status")
+    public ResponseEntity<Void> requestStatus(
+            @PathVariable Long id,
+            @Valid @RequestBody OrderStatusRequest request
+    ) {
+        orderService.requestStatus(id, request.getStatus());
+        return ResponseEntity.accepted().build();
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalStateException(IllegalStateException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+}
@@ -0,0 +1,65 @@
+package com.vehicle.controller;
+
+import com.vehicle.dto.VehicleImportResult;
+import com.vehicle.service.ExportFormat;
+import com.vehicle.service.VehicleImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+@RestController
+@RequestMapping("/api/admin/vehicles")
+@RequiredArgsConstructor
+public class AdminVehicleController {
+
+    private final VehicleImportService vehicleImportService;
+
+    /**
+     * Imports a CSV or NDJSON feed sent as the request body, optionally
+     * gzip-compressed. The format comes from the {@code format} parameter or,
+     * without it, from the Content-Type.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<VehicleImportResult> importVehicles(
+            @RequestParam(required = false) String format,
+            HttpServletRequest request
+    ) throws IOException {
+        ExportFormat feedFormat = format != null
+                ? ExportFormat.from(format)
+                : ExportFormat.fromContentType(request.getContentType());
+        if (feedFormat == null) {
+            throw new IllegalArgumentException("Unsupported feed type: " + request.getContentType());
+        }
+        InputStream body = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            body = new GZIPInputStream(body, 64 * 1024);
+        }
+        return ResponseEntity.ok(vehicleImportService.importFeed(
+                new InputStreamReader(body, StandardCharsets.UTF_8), feedFormat));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalStateException(IllegalStateException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+}
@@ -0,0 +1,62 @@
+package com.vehicle.controller;
+
+import com.vehicle.service.ExportFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes export bodies straight to the servlet response, gzip-compressed when
+ * the client accepts it. Compression uses sync flushes so that each periodic
+ * flush of the export reaches the client.
+ */
+final class ExportResponses {
+
+    private ExportResponses() {
+    }
+
+    @FunctionalInterface
+    interface Body {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    static void stream(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            ExportFormat format,
+            String fileName,
+            Body body
+    ) throws IOException {
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + fileName + "." + format.getExtension() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            body.writeTo(response.getOutputStream());
+            return;
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 64 * 1024, true);
+        body.writeTo(out);
+        out.finish();
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -1,5 +1,9 @@
 package com.vehicle.controller;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -9,17 +13,26 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Public health summary backed by the actuator health checks. Details are
+ * only available from {@code /actuator/health}.
+ */
 @RestController
 @RequestMapping("/api/health")
+@RequiredArgsConstructor
 public class HealthController {
 
+    private final HealthEndpoint healthEndpoint;
+
     @GetMapping
     public ResponseEntity<Map<String, Object>> healthCheck() {
+        Status status = healthEndpoint.health().getStatus();
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "UP");
+        response.put("status", status.getCode());
         response.put("timestamp", LocalDateTime.now());
         response.put("service", "Vehicle API");
-        
-        return ResponseEntity.ok(response);
+
+        boolean available = !Status.DOWN.equals(status) && !Status.OUT_OF_SERVICE.equals(status);
+        return ResponseEntity.status(available ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(response);
     }
-} 
\ No newline at end of file
+}
@@ -1,31 +1,64 @@
 package com.vehicle.controller;
 
 import com.vehicle.dto.CreateOrderRequest;
+import com.vehicle.dto.OrderCursorPage;
 import com.vehicle.dto.OrderResponse;
+import com.vehicle.dto.OrderSummaryResponse;
 import com.vehicle.entity.User;
+import com.vehicle.service.ExportFormat;
+import com.vehicle.service.ExportService;
+import com.vehicle.service.IdempotencyKeyReusedException;
+import com.vehicle.service.IdempotencyStore;
 import com.vehicle.service.OrderService;
+import com.vehicle.service.StockConflictException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("createdAt", "totalAmount", "status", "id");
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderService orderService;
+    private final ExportService exportService;
+    private final IdempotencyStore idempotencyStore;
 
+    /**
+     * With an {@code Idempotency-Key} header, a retry of the same order gets
+     * the original response, marked with {@code Idempotent-Replayed: true},
+     * instead of placing the order again.
+     */
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(
             @AuthenticationPrincipal User user,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody CreateOrderRequest request
     ) {
-        return ResponseEntity.ok(orderService.createOrder(user, request));
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(orderService.createOrder(user, request));
+        }
+        IdempotencyStore.Result result = idempotencyStore.execute(user, idempotencyKey, request,
+                claim -> orderService.createOrder(user, request, claim));
+        return ResponseEntity.ok()
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(result.response());
     }
 
     @GetMapping
@@ -36,8 +69,101 @@ public class OrderController {
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir
     ) {
+        checkPageSize(size);
+        if (!SORTABLE_PROPERTIES.contains(sortBy)) {
+            throw new IllegalArgumentException("Cannot sort orders by: " + sortBy);
+        }
         Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
-        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(direction, sortBy).and(Sort.by(direction, "id")));
         return ResponseEntity.ok(orderService.getUserOrders(user, pageRequest));
     }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<OrderCursorPage> getUserOrdersAfter(
+            @AuthenticationPrincipal User user,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "desc") String sortDir
+    ) {
+        checkPageSize(size);
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(orderService.getUserOrdersAfter(user, after, size, direction));
+    }
+
+    /**
+     * Order history without items, one row per order; fetch an order's items
+     * with {@code GET /api/orders/{id}}.
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<Page<OrderSummaryResponse>> getUserOrderSummaries(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "desc") String sortDir
+    ) {
+        checkPageSize(size);
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(direction, "createdAt", "orderId"));
+        return ResponseEntity.ok(orderService.getUserOrderSummaries(user, pageRequest));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<OrderResponse> getUserOrder(@AuthenticationPrincipal User user, @PathVariable Long id) {
+        return ResponseEntity.ok(orderService.getUserOrder(user, id));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<Void> cancelOrder(@AuthenticationPrincipal User user, @PathVariable Long id) {
+        orderService.cancelOrder(user, id);
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Dump of all orders as NDJSON (default) or CSV. Admin only, see
+     * {@code SecurityConfig}.
+     */
+    @GetMapping("/export")
+    public void exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        ExportResponses.stream(request, response, exportFormat, "orders",
+                out -> exportService.exportOrders(exportFormat, out));
+    }
+
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalStateException(IllegalStateException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(StockConflictException.class)
+    public ResponseEntity<Map<String, String>> handleStockConflict(StockConflictException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Map<String, String>> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
 } 
\ No newline at end of file
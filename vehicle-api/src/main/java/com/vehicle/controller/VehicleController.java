@@ -1,26 +1,49 @@
 package com.vehicle.controller;
 
 import com.vehicle.dto.VehicleDTO;
+import com.vehicle.dto.VehicleFacetsResponse;
 import com.vehicle.entity.FuelType;
 import com.vehicle.entity.VehicleType;
+import com.vehicle.service.CatalogVersion;
+import com.vehicle.service.ExportFormat;
+import com.vehicle.service.ExportService;
 import com.vehicle.service.VehicleService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/vehicles")
 @RequiredArgsConstructor
 public class VehicleController {
 
+    private static final int MAX_SEARCH_SIZE = 100;
+
     private final VehicleService vehicleService;
+    private final CatalogVersion catalogVersion;
+    private final ExportService exportService;
+
+    @Value("${vehicle.http.cache.max-age-seconds:30}")
+    private long cacheMaxAgeSeconds;
+
+    @Value("${vehicle.stock.max-ids:100}")
+    private int maxStockIds;
 
     @GetMapping
     public ResponseEntity<Page<VehicleDTO>> getAllVehicles(
@@ -34,22 +57,125 @@ public class VehicleController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir
+            @RequestParam(defaultValue = "asc") String sortDir,
+            ServletWebRequest webRequest
     ) {
+        String etag = catalogVersion.catalogTag(webRequest.getRequest().getQueryString());
+        if (webRequest.checkNotModified(etag)) {
+            return notModified();
+        }
+
         Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
         PageRequest pageRequest = PageRequest.of(page, size, Sort.by(direction, sortBy));
         
         VehicleType vehicleType = type != null ? VehicleType.valueOf(type.toUpperCase()) : null;
         FuelType vehicleFuelType = fuelType != null ? FuelType.valueOf(fuelType.toUpperCase()) : null;
         
-        return ResponseEntity.ok(vehicleService.getAllVehicles(
+        return cached(etag).body(vehicleService.getAllVehicles(
                 name, brand, model, minPrice, maxPrice, vehicleType, vehicleFuelType, pageRequest
         ));
     }
 
+    @GetMapping("/facets")
+    public ResponseEntity<VehicleFacetsResponse> getVehicleFacets(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String model,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String fuelType,
+            ServletWebRequest webRequest
+    ) {
+        String etag = catalogVersion.catalogTag(webRequest.getRequest().getQueryString());
+        if (webRequest.checkNotModified(etag)) {
+            return notModified();
+        }
+
+        VehicleType vehicleType = type != null ? VehicleType.valueOf(type.toUpperCase()) : null;
+        FuelType vehicleFuelType = fuelType != null ? FuelType.valueOf(fuelType.toUpperCase()) : null;
+
+        return cached(etag).body(vehicleService.getVehicleFacets(
+                name, brand, model, minPrice, maxPrice, vehicleType, vehicleFuelType
+        ));
+    }
+
+    /**
+     * Full catalog dump as NDJSON (default) or CSV.
+     */
+    @GetMapping("/export")
+    public void exportVehicles(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        ExportResponses.stream(request, response, exportFormat, "vehicles",
+                out -> exportService.exportVehicles(exportFormat, out));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchVehicles(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String fuelType,
+            @RequestParam(required = false) String brand,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        if (page < 0 || size < 1 || size > MAX_SEARCH_SIZE) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "page must not be negative and size must be between 1 and " + MAX_SEARCH_SIZE);
+            return ResponseEntity.badRequest().body(error);
+        }
+        VehicleType vehicleType = type != null ? VehicleType.valueOf(type.toUpperCase()) : null;
+        FuelType vehicleFuelType = fuelType != null ? FuelType.valueOf(fuelType.toUpperCase()) : null;
+
+        return ResponseEntity.ok(vehicleService.searchVehicles(q, vehicleType, vehicleFuelType, brand, page, size));
+    }
+
+    /**
+     * Current stock of up to {@code vehicle.stock.max-ids} vehicles, keyed by
+     * id, for clients that poll stock without reloading the catalog.
+     */
+    @GetMapping("/stock")
+    public ResponseEntity<?> getStockLevels(@RequestParam List<Long> ids) {
+        if (ids.size() > maxStockIds) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "At most " + maxStockIds + " ids can be requested at once");
+            return ResponseEntity.badRequest().body(error);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(vehicleService.getStockLevels(ids));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<VehicleDTO> getVehicleById(@PathVariable Long id) {
-        return ResponseEntity.ok(vehicleService.getVehicleById(id));
+    public ResponseEntity<VehicleDTO> getVehicleById(@PathVariable Long id, ServletWebRequest webRequest) {
+        String etag = catalogVersion.vehicleTag(id);
+        if (webRequest.checkNotModified(etag)) {
+            return notModified();
+        }
+        return cached(etag).body(vehicleService.getVehicleById(id));
+    }
+
+    /**
+     * Public catalog responses may be stored by shared caches, which must
+     * revalidate with the ETag once {@code max-age} has passed.
+     */
+    private ResponseEntity.BodyBuilder cached(String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(cacheMaxAgeSeconds, TimeUnit.SECONDS).cachePublic().mustRevalidate());
+    }
+
+    /**
+     * {@link ServletWebRequest#checkNotModified} has already set the ETag.
+     */
+    private <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(CacheControl.maxAge(cacheMaxAgeSeconds, TimeUnit.SECONDS).cachePublic().mustRevalidate())
+                .build();
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
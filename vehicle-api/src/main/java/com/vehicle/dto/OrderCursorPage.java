@@ -0,0 +1,19 @@
+package com.vehicle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCursorPage {
+    private List<OrderResponse> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
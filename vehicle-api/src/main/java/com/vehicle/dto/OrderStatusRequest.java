@@ -0,0 +1,11 @@
+package com.vehicle.dto;
+
+import com.vehicle.entity.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class OrderStatusRequest {
+    @NotNull(message = "Status is required")
+    private OrderStatus status;
+}
@@ -0,0 +1,23 @@
+package com.vehicle.dto;
+
+import com.vehicle.entity.FuelType;
+import com.vehicle.entity.VehicleType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleFacetsResponse {
+    private long totalElements;
+    private long inStock;
+    private Map<VehicleType, Long> typeCounts;
+    private Map<FuelType, Long> fuelTypeCounts;
+    private Map<String, Long> brandCounts;
+    private Map<String, Long> priceRangeCounts;
+}
@@ -0,0 +1,24 @@
+package com.vehicle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleImportResult {
+    private long read;
+    private long invalid;
+    private long duplicates;
+    private long inserted;
+    private long updated;
+    private long stockUpdated;
+    private long unchanged;
+    private long durationMs;
+    private List<String> errors;
+}
@@ -0,0 +1,25 @@
+package com.vehicle.dto;
+
+import com.vehicle.entity.FuelType;
+import com.vehicle.entity.VehicleType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleSearchResponse {
+    private List<VehicleDTO> content;
+    private long totalElements;
+    private int page;
+    private int size;
+    private Map<VehicleType, Long> typeCounts;
+    private Map<FuelType, Long> fuelTypeCounts;
+    private Map<String, Long> brandCounts;
+}
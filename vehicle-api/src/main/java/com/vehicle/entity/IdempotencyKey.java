@@ -0,0 +1,50 @@
+package com.vehicle.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of an order submitted with an {@code Idempotency-Key}, written in
+ * the same transaction as the order so a retry can be answered with the
+ * original response.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_idempotency_keys_user_key", columnNames = {"user_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, to reject a key reused for a different order
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    // The OrderResponse as JSON
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,46 @@
+package com.vehicle.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox entry the order pipeline gave up on, either because it failed
+ * {@code vehicle.orders.pipeline.max-attempts} times or because its
+ * transition is unknown. Kept with its last error for manual inspection.
+ */
+@Entity
+@Table(name = "order_outbox_dead_letters", indexes = {
+        @Index(name = "idx_order_outbox_dead_letters_order_id", columnList = "order_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutboxDeadLetter {
+
+    // Id of the outbox entry it was moved from
+    @Id
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    // Copied as written, since it may not name a known transition
+    @Column(columnDefinition = "VARCHAR(20)", nullable = false)
+    private String transition;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+
+    @Column(length = 1000)
+    private String error;
+}
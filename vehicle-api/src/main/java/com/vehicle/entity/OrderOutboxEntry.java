@@ -0,0 +1,51 @@
+package com.vehicle.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending status change of an order, written in the transaction that
+ * requests it and deleted once the order pipeline has applied it.
+ */
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_order_id", columnList = "order_id"),
+        @Index(name = "idx_order_outbox_shard", columnList = "shard, available_at, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    // order_id modulo the worker count, stored so each worker reads its entries through the index
+    @Column(nullable = false)
+    private int shard;
+
+    // A plain VARCHAR rather than a native ENUM, so adding a transition needs no schema change
+    @Column(columnDefinition = "VARCHAR(20)", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OrderTransition transition;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Not picked up before this time; pushed back after a failed attempt
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(nullable = false)
+    private int attempts;
+}
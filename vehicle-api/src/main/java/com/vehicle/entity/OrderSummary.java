@@ -0,0 +1,54 @@
+package com.vehicle.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized row per order for order history lists, written with the
+ * order and kept in step with its status, so a page of history is read from
+ * this table alone.
+ */
+@Entity
+@Table(name = "order_summaries", indexes = {
+        @Index(name = "idx_order_summaries_user_created_at", columnList = "user_id, created_at, order_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    // Shares the order's id; never loaded when reading summaries
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "order_id")
+    private Order order;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private Integer itemCount;
+
+    private String firstVehicleName;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,46 @@
+package com.vehicle.entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Status changes carried out by the order pipeline. A transition only
+ * applies to an order that is still in one of its {@code from} statuses, so
+ * replaying one is harmless.
+ */
+public enum OrderTransition {
+    CONFIRM(OrderStatus.CONFIRMED, OrderStatus.PENDING),
+    SHIP(OrderStatus.SHIPPED, OrderStatus.CONFIRMED),
+    DELIVER(OrderStatus.DELIVERED, OrderStatus.SHIPPED),
+    // Also returns the order's stock
+    CANCEL(OrderStatus.CANCELLED, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+
+    private final OrderStatus to;
+    private final Set<OrderStatus> from;
+
+    OrderTransition(OrderStatus to, OrderStatus first, OrderStatus... rest) {
+        this.to = to;
+        this.from = EnumSet.of(first, rest);
+    }
+
+    public Set<OrderStatus> getFrom() {
+        return from;
+    }
+
+    public OrderStatus getTo() {
+        return to;
+    }
+
+    /**
+     * @return the transition into {@code status}, or null if the pipeline
+     * cannot move an order there
+     */
+    public static OrderTransition into(OrderStatus status) {
+        for (OrderTransition transition : values()) {
+            if (transition.to == status) {
+                return transition;
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.vehicle.entity;
 
+import com.vehicle.config.UserChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,6 +15,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserChangeListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -9,7 +9,8 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "vehicles")
+@Table(name = "vehicles", uniqueConstraints = @UniqueConstraint(
+        name = "uk_vehicles_brand_model_year_color", columnNames = {"brand", "model", "year", "color"}))
 @Data
 @Builder
 @NoArgsConstructor
@@ -40,6 +41,11 @@ public class Vehicle {
     
     @Column(name = "quantity_available", nullable = false)
     private Integer quantityAvailable;
+
+    // Bumped by every write, including the JDBC stock updates, for OPTIMISTIC checkout
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
     
     @Column(columnDefinition = "TEXT")
     private String description;
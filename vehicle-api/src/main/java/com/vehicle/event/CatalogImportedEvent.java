@@ -0,0 +1,18 @@
+package com.vehicle.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published once when a catalog import that created or edited vehicles has
+ * finished. The import also publishes a {@link VehicleChangedEvent} per
+ * vehicle, marked as imported, so listeners that can only reload the whole
+ * catalog wait for this event and reload once.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CatalogImportedEvent {
+    private final long vehiclesChanged;
+}
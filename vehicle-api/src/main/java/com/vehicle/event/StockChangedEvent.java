@@ -0,0 +1,34 @@
+package com.vehicle.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published whenever the available quantity of a vehicle changes.
+ * Listeners that keep in-process copies of the catalog use it to patch
+ * stock in place instead of reloading the whole catalog.
+ * <p>
+ * {@code version} is the row version the quantity was written with. After
+ * commit listeners of two transactions can run in either order, so a listener
+ * drops an event older than the version it already holds. Quantities taken
+ * from the inventory ledger carry {@link #NO_VERSION} and always apply.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StockChangedEvent {
+
+    public static final long NO_VERSION = -1;
+
+    private final Long vehicleId;
+    private final int quantityAvailable;
+    private final long version;
+
+    /**
+     * @return whether this event should replace a quantity read at {@code heldVersion}
+     */
+    public boolean isNewerThan(long heldVersion) {
+        return version == NO_VERSION || version > heldVersion;
+    }
+}
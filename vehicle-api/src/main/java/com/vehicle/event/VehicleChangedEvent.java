@@ -0,0 +1,25 @@
+package com.vehicle.event;
+
+import com.vehicle.entity.Vehicle;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when the catalog data of a vehicle was created, changed or
+ * deleted. {@code vehicle} holds the new state and is null for deletions.
+ * {@code imported} is set for changes made by a catalog import, which ends
+ * with a {@link CatalogImportedEvent}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class VehicleChangedEvent {
+    private final Long vehicleId;
+    private final Vehicle vehicle;
+    private final boolean imported;
+
+    public boolean isRemoved() {
+        return vehicle == null;
+    }
+}
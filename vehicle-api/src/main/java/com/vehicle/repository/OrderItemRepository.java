@@ -0,0 +1,29 @@
+package com.vehicle.repository;
+
+import com.vehicle.entity.OrderItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    /**
+     * Streams every order line with its order, user and vehicle, grouped by
+     * order. Only to-one associations are fetched, so each result row is one
+     * line and the stream never has to buffer a collection. Streamed row by
+     * row like {@link VehicleRepository#streamAllOrderById()}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT i FROM OrderItem i " +
+           "JOIN FETCH i.order o " +
+           "JOIN FETCH o.user " +
+           "JOIN FETCH i.vehicle " +
+           "ORDER BY o.id, i.id")
+    Stream<OrderItem> streamAllForExport();
+}
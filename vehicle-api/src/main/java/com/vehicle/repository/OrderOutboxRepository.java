@@ -0,0 +1,9 @@
+package com.vehicle.repository;
+
+import com.vehicle.entity.OrderOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEntry, Long> {
+}
@@ -2,23 +2,54 @@ package com.vehicle.repository;
 
 import com.vehicle.entity.Order;
 import com.vehicle.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
 
+    @Query(value = "SELECT o.id FROM Order o WHERE o.user = :user",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user = :user")
+    Page<Long> findIdsByUser(@Param("user") User user, Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE o.user = :user")
+    Slice<Long> findIdSliceByUser(@Param("user") User user, Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE o.user = :user AND " +
+           "(o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Long> findIdsByUserBefore(
+            @Param("user") User user,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    @Query("SELECT o.id FROM Order o WHERE o.user = :user AND " +
+           "(o.createdAt > :createdAt OR (o.createdAt = :createdAt AND o.id > :id)) " +
+           "ORDER BY o.createdAt ASC, o.id ASC")
+    List<Long> findIdsByUserAfter(
+            @Param("user") User user,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
     @Query("SELECT DISTINCT o FROM Order o " +
+           "JOIN FETCH o.user " +
            "LEFT JOIN FETCH o.items i " +
            "LEFT JOIN FETCH i.vehicle " +
-           "WHERE o.user = :user " +
-           "ORDER BY o.createdAt DESC")
-    List<Order> findByUserWithItems(@Param("user") User user);
-} 
\ No newline at end of file
+           "WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+}
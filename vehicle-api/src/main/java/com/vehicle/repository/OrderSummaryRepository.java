@@ -0,0 +1,13 @@
+package com.vehicle.repository;
+
+import com.vehicle.entity.OrderSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    Page<OrderSummary> findByUserId(Long userId, Pageable pageable);
+}
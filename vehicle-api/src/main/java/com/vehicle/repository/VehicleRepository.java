@@ -3,26 +3,37 @@ package com.vehicle.repository;
 import com.vehicle.entity.FuelType;
 import com.vehicle.entity.Vehicle;
 import com.vehicle.entity.VehicleType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     
-    @Query("SELECT v FROM Vehicle v WHERE " +
+    String SEARCH_FILTERS =
            "(:name IS NULL OR LOWER(v.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
            "(:brand IS NULL OR LOWER(v.brand) LIKE LOWER(CONCAT('%', :brand, '%'))) AND " +
            "(:model IS NULL OR LOWER(v.model) LIKE LOWER(CONCAT('%', :model, '%'))) AND " +
            "(:minPrice IS NULL OR v.price >= :minPrice) AND " +
            "(:maxPrice IS NULL OR v.price <= :maxPrice) AND " +
            "(:type IS NULL OR v.type = :type) AND " +
-           "(:fuelType IS NULL OR v.fuelType = :fuelType)")
+           "(:fuelType IS NULL OR v.fuelType = :fuelType)";
+
+    @Query("SELECT v FROM Vehicle v WHERE " + SEARCH_FILTERS)
     Page<Vehicle> searchVehicles(
             @Param("name") String name,
             @Param("brand") String brand,
@@ -33,4 +44,108 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
             @Param("fuelType") FuelType fuelType,
             Pageable pageable
     );
-} 
\ No newline at end of file
+
+    /**
+     * Facet counts for the same filters as {@link #searchVehicles}, used when
+     * the catalog index cannot answer. Each {@code countBy} query is called
+     * with null for the filter of its own facet.
+     *
+     * @return one row of {@code [total, in stock]}
+     */
+    @Query("SELECT COUNT(v), COALESCE(SUM(CASE WHEN v.quantityAvailable > 0 THEN 1 ELSE 0 END), 0) " +
+           "FROM Vehicle v WHERE " + SEARCH_FILTERS)
+    List<Object[]> countForFacets(
+            @Param("name") String name,
+            @Param("brand") String brand,
+            @Param("model") String model,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("type") VehicleType type,
+            @Param("fuelType") FuelType fuelType
+    );
+
+    @Query("SELECT v.type, COUNT(v) FROM Vehicle v WHERE v.type IS NOT NULL AND " + SEARCH_FILTERS +
+           " GROUP BY v.type")
+    List<Object[]> countByType(
+            @Param("name") String name,
+            @Param("brand") String brand,
+            @Param("model") String model,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("type") VehicleType type,
+            @Param("fuelType") FuelType fuelType
+    );
+
+    @Query("SELECT v.fuelType, COUNT(v) FROM Vehicle v WHERE v.fuelType IS NOT NULL AND " + SEARCH_FILTERS +
+           " GROUP BY v.fuelType")
+    List<Object[]> countByFuelType(
+            @Param("name") String name,
+            @Param("brand") String brand,
+            @Param("model") String model,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("type") VehicleType type,
+            @Param("fuelType") FuelType fuelType
+    );
+
+    @Query("SELECT v.brand, COUNT(v) FROM Vehicle v WHERE " + SEARCH_FILTERS + " GROUP BY v.brand")
+    List<Object[]> countByBrand(
+            @Param("name") String name,
+            @Param("brand") String brand,
+            @Param("model") String model,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("type") VehicleType type,
+            @Param("fuelType") FuelType fuelType
+    );
+
+    /**
+     * @return one row with the count of each price range, split at the given
+     * ascending bounds: below {@code b1}, {@code b1..b2}, ..., {@code b4} and above
+     */
+    @Query("SELECT " +
+           "COALESCE(SUM(CASE WHEN v.price < :b1 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN v.price >= :b1 AND v.price < :b2 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN v.price >= :b2 AND v.price < :b3 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN v.price >= :b3 AND v.price < :b4 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN v.price >= :b4 THEN 1 ELSE 0 END), 0) " +
+           "FROM Vehicle v WHERE " + SEARCH_FILTERS)
+    List<Object[]> countByPriceRange(
+            @Param("name") String name,
+            @Param("brand") String brand,
+            @Param("model") String model,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("type") VehicleType type,
+            @Param("fuelType") FuelType fuelType,
+            @Param("b1") BigDecimal b1,
+            @Param("b2") BigDecimal b2,
+            @Param("b3") BigDecimal b3,
+            @Param("b4") BigDecimal b4
+    );
+
+    @Query("SELECT v.id AS id, v.quantityAvailable AS quantityAvailable, v.version AS version FROM Vehicle v")
+    List<VehicleStock> findAllStock();
+
+    @Query("SELECT v.id AS id, v.quantityAvailable AS quantityAvailable, v.version AS version " +
+            "FROM Vehicle v WHERE v.id = :id")
+    Optional<VehicleStock> findStockById(@Param("id") Long id);
+
+    @Query("SELECT v FROM Vehicle v WHERE v.id IN :ids ORDER BY v.id")
+    List<Vehicle> findAllByIdInOrderById(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vehicle v WHERE v.id IN :ids ORDER BY v.id")
+    List<Vehicle> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Streams the whole catalog for export. Must be consumed inside a
+     * transaction and closed. A fetch size of {@code Integer.MIN_VALUE} makes
+     * MySQL Connector/J stream rows one at a time instead of buffering the
+     * result; the connection cannot run other statements until the stream
+     * is closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT v FROM Vehicle v ORDER BY v.id")
+    Stream<Vehicle> streamAllOrderById();
+}
\ No newline at end of file
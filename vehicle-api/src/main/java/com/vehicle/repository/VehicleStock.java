@@ -0,0 +1,10 @@
+package com.vehicle.repository;
+
+/**
+ * Projection of a vehicle row down to its stock level.
+ */
+public interface VehicleStock {
+    Long getId();
+    Integer getQuantityAvailable();
+    Long getVersion();
+}
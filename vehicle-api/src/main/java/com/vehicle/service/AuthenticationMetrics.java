@@ -0,0 +1,36 @@
+package com.vehicle.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counts rejected logins and rejected tokens by reason, as
+ * {@code vehicle.security.auth.failures}.
+ */
+@Component
+public class AuthenticationMetrics {
+
+    public enum Reason {
+        BAD_CREDENTIALS, RATE_LIMITED, INVALID_TOKEN, REVOKED_TOKEN
+    }
+
+    private final Map<Reason, Counter> failures = new EnumMap<>(Reason.class);
+
+    public AuthenticationMetrics(MeterRegistry registry) {
+        for (Reason reason : Reason.values()) {
+            failures.put(reason, Counter.builder("vehicle.security.auth.failures")
+                    .description("Rejected logins and tokens")
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+    }
+
+    public void failure(Reason reason) {
+        failures.get(reason).increment();
+    }
+}
@@ -1,5 +1,7 @@
 package com.vehicle.service;
 
+import com.vehicle.config.TokenRevocationList;
+import com.vehicle.config.VerifiedTokenCache;
 import com.vehicle.dto.AuthResponse;
 import com.vehicle.dto.LoginRequest;
 import com.vehicle.dto.SignupRequest;
@@ -7,9 +9,7 @@ import com.vehicle.entity.Role;
 import com.vehicle.entity.User;
 import com.vehicle.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -20,9 +20,17 @@ public class AuthenticationService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final LoginRateLimiter rateLimiter;
+    private final TokenRevocationList revocationList;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final AuthenticationMetrics authenticationMetrics;
 
-    public AuthResponse signup(SignupRequest request) {
+    private volatile String unknownUserHash;
+
+    public AuthResponse signup(SignupRequest request, String clientAddress) {
+        acquireAttempt(null, clientAddress);
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
@@ -31,7 +39,7 @@ public class AuthenticationService {
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(hashingExecutor.execute(() -> passwordEncoder.encode(request.getPassword())))
                 .role(Role.USER)
                 .build();
 
@@ -46,21 +54,27 @@ public class AuthenticationService {
                 .build();
     }
 
-    public AuthResponse login(LoginRequest request) {
-        try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getEmail(),
-                            request.getPassword()
-                    )
-            );
-        } catch (BadCredentialsException e) {
+    /**
+     * Loads the user on the request thread and only sends the bcrypt
+     * comparison to the hashing pool, so pool threads never wait on the
+     * database. An unknown email is checked against a dummy hash and takes as
+     * long as a wrong password. A stored hash with a lower cost than the
+     * configured bcrypt strength is rehashed on success.
+     */
+    public AuthResponse login(LoginRequest request, String clientAddress) {
+        acquireAttempt(request.getEmail(), clientAddress);
+        User user = userRepository.findByEmail(request.getEmail()).orElse(null);
+        String hash = user != null ? user.getPassword() : unknownUserHash();
+        boolean matches = hashingExecutor.execute(() -> passwordEncoder.matches(request.getPassword(), hash));
+        if (user == null || !matches) {
+            authenticationMetrics.failure(AuthenticationMetrics.Reason.BAD_CREDENTIALS);
             throw new RuntimeException("Invalid email or password");
         }
+        if (passwordEncoder.upgradeEncoding(hash)) {
+            String rehashed = hashingExecutor.execute(() -> passwordEncoder.encode(request.getPassword()));
+            user = (User) userDetailsPasswordService.updatePassword(user, rehashed);
+        }
 
-        var user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
         var token = jwtService.generateToken(user);
 
         return AuthResponse.builder()
@@ -70,4 +84,36 @@ public class AuthenticationService {
                 .lastName(user.getLastName())
                 .build();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Revokes the token until it expires. Other sessions of the same user
+     * stay valid, but their cached verification is dropped too, so they
+     * load the current account on their next request.
+     */
+    public void logout(String token) {
+        TokenClaims claims = jwtService.parse(token);
+        revocationList.revoke(token, claims.expiresAt());
+        verifiedTokenCache.invalidate(token);
+        if (claims.subject() != null) {
+            verifiedTokenCache.invalidateUser(claims.subject());
+        }
+    }
+
+    private String unknownUserHash() {
+        String hash = unknownUserHash;
+        if (hash == null) {
+            hash = hashingExecutor.execute(() -> passwordEncoder.encode("unknown-user"));
+            unknownUserHash = hash;
+        }
+        return hash;
+    }
+
+    private void acquireAttempt(String account, String clientAddress) {
+        try {
+            rateLimiter.acquire(account, clientAddress);
+        } catch (TooManyRequestsException e) {
+            authenticationMetrics.failure(AuthenticationMetrics.Reason.RATE_LIMITED);
+            throw e;
+        }
+    }
+}
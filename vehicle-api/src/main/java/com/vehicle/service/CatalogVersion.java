@@ -0,0 +1,78 @@
+package com.vehicle.service;
+
+import com.vehicle.event.CatalogImportedEvent;
+import com.vehicle.event.StockChangedEvent;
+import com.vehicle.event.VehicleChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the vehicle catalog, used to build weak ETags for the
+ * public catalog endpoints.
+ * <p>
+ * The catalog version is bumped on every stock or vehicle change, and each
+ * changed vehicle remembers the version it was last changed at. Tags also
+ * carry the start time of this instance, so a restart never reuses a tag that
+ * was handed out for different data. Writes that bypass the events, such as
+ * manual SQL, are not seen until the next restart.
+ * <p>
+ * The listeners run after the in-process catalog copies have been patched,
+ * so a tag is never newer than the data served with it.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Long, Long> vehicleVersions = new ConcurrentHashMap<>();
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        bump(event.getVehicleId());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        bump(event.getVehicleId());
+    }
+
+    /**
+     * The catalog index only picks up an import once it has finished, so
+     * catalog tags handed out during the import must change again.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Weak ETag for a catalog query; it changes whenever any vehicle changes.
+     *
+     * @param query the raw query string, so different queries get different tags
+     */
+    public String catalogTag(String query) {
+        String suffix = query == null ? "" : "-" + Integer.toHexString(query.hashCode());
+        return "W/\"c" + epoch + "-" + version.get() + suffix + "\"";
+    }
+
+    /**
+     * Weak ETag for a single vehicle; it only changes when that vehicle does.
+     */
+    public String vehicleTag(Long vehicleId) {
+        return "W/\"v" + epoch + "-" + vehicleVersions.getOrDefault(vehicleId, 0L) + "\"";
+    }
+
+    private void bump(Long vehicleId) {
+        long next = version.incrementAndGet();
+        vehicleVersions.merge(vehicleId, next, Math::max);
+    }
+}
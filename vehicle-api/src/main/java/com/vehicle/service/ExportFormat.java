@@ -0,0 +1,45 @@
+package com.vehicle.service;
+
+import java.util.Locale;
+
+/**
+ * Feed formats of the export and import endpoints.
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat from(String value) {
+        return valueOf(value.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @return the format with the given media type, or {@code null} if none matches
+     */
+    public static ExportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            for (ExportFormat format : values()) {
+                if (contentType.toLowerCase(Locale.ROOT).startsWith(format.contentType)) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,198 @@
+package com.vehicle.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicle.dto.OrderItemResponse;
+import com.vehicle.dto.OrderResponse;
+import com.vehicle.dto.VehicleDTO;
+import com.vehicle.entity.Order;
+import com.vehicle.entity.OrderItem;
+import com.vehicle.entity.Vehicle;
+import com.vehicle.repository.OrderItemRepository;
+import com.vehicle.repository.VehicleRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes full dumps of the catalog and of all orders as NDJSON or CSV.
+ * <p>
+ * Rows are streamed from the database one by one, converted one
+ * at a time and written straight to the output. Every
+ * {@code vehicle.export.flush-every-rows} rows the output is flushed and the
+ * persistence context is cleared, so memory use does not grow with the size
+ * of the export.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final List<String> VEHICLE_COLUMNS = List.of(
+            "id", "name", "model", "brand", "year", "color", "price", "quantityAvailable",
+            "type", "fuelType", "description", "imageUrl");
+    private static final List<String> ORDER_LINE_COLUMNS = List.of(
+            "orderId", "userEmail", "status", "createdAt", "totalAmount", "shippingAddress",
+            "itemId", "vehicleId", "vehicleName", "quantity", "pricePerUnit", "totalPrice");
+
+    private final VehicleRepository vehicleRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${vehicle.export.flush-every-rows:1000}")
+    private int flushEveryRows;
+
+    /**
+     * @return the number of vehicles written
+     */
+    @Transactional(readOnly = true)
+    public long exportVehicles(ExportFormat format, OutputStream out) throws IOException {
+        long rows = 0;
+        try (Stream<Vehicle> vehicles = vehicleRepository.streamAllOrderById();
+             RowWriter writer = new RowWriter(format, out, VEHICLE_COLUMNS)) {
+            for (Iterator<Vehicle> it = vehicles.iterator(); it.hasNext(); ) {
+                VehicleDTO vehicle = VehicleService.mapToDTO(it.next());
+                if (format == ExportFormat.NDJSON) {
+                    writer.writeJson(vehicle);
+                } else {
+                    writer.writeCsv(vehicle.getId(), vehicle.getName(), vehicle.getModel(), vehicle.getBrand(),
+                            vehicle.getYear(), vehicle.getColor(), vehicle.getPrice(), vehicle.getQuantityAvailable(),
+                            vehicle.getType(), vehicle.getFuelType(), vehicle.getDescription(), vehicle.getImageUrl());
+                }
+                checkpoint(writer, ++rows);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * NDJSON has one line per order with its items nested; CSV has one line
+     * per order item with the order columns repeated.
+     *
+     * @return the number of orders (NDJSON) or order lines (CSV) written
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(ExportFormat format, OutputStream out) throws IOException {
+        long rows = 0;
+        try (Stream<OrderItem> items = orderItemRepository.streamAllForExport();
+             RowWriter writer = new RowWriter(format, out, ORDER_LINE_COLUMNS)) {
+            OrderResponse current = null;
+            for (Iterator<OrderItem> it = items.iterator(); it.hasNext(); ) {
+                OrderItem item = it.next();
+                Order order = item.getOrder();
+                if (format == ExportFormat.CSV) {
+                    writer.writeCsv(order.getId(), order.getUser().getEmail(), order.getStatus(),
+                            order.getCreatedAt(), order.getTotalAmount(), order.getShippingAddress(),
+                            item.getId(), item.getVehicle().getId(), item.getVehicle().getName(),
+                            item.getQuantity(), item.getPricePerUnit(), item.getTotalPrice());
+                    checkpoint(writer, ++rows);
+                    continue;
+                }
+                if (current != null && !current.getId().equals(order.getId())) {
+                    writer.writeJson(current);
+                    checkpoint(writer, ++rows);
+                    current = null;
+                }
+                if (current == null) {
+                    current = OrderResponse.builder()
+                            .id(order.getId())
+                            .userEmail(order.getUser().getEmail())
+                            .shippingAddress(order.getShippingAddress())
+                            .totalAmount(order.getTotalAmount())
+                            .status(order.getStatus())
+                            .createdAt(order.getCreatedAt())
+                            .items(new ArrayList<>())
+                            .build();
+                }
+                current.getItems().add(OrderItemResponse.builder()
+                        .id(item.getId())
+                        .vehicleId(item.getVehicle().getId())
+                        .vehicleName(item.getVehicle().getName())
+                        .quantity(item.getQuantity())
+                        .pricePerUnit(item.getPricePerUnit())
+                        .totalPrice(item.getTotalPrice())
+                        .build());
+            }
+            if (current != null) {
+                writer.writeJson(current);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private void checkpoint(RowWriter writer, long rows) throws IOException {
+        if (rows % flushEveryRows == 0) {
+            writer.flush();
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Buffered writer for one export. Closing it flushes the buffers but
+     * leaves the underlying stream open for the caller.
+     */
+    private final class RowWriter implements Closeable {
+        private final Writer writer;
+        private final JsonGenerator json;
+
+        private RowWriter(ExportFormat format, OutputStream out, List<String> csvHeader) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            if (format == ExportFormat.NDJSON) {
+                this.json = objectMapper.getFactory().createGenerator(writer)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .setRootValueSeparator(null);
+            } else {
+                this.json = null;
+                writeCsv(csvHeader.toArray());
+            }
+        }
+
+        private void writeJson(Object value) throws IOException {
+            json.writeObject(value);
+            json.writeRaw('\n');
+        }
+
+        private void writeCsv(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write('\n');
+        }
+
+        private void flush() throws IOException {
+            if (json != null) {
+                json.flush();
+            }
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        private static String escape(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.vehicle.service;
+
+/**
+ * Thrown when an {@code Idempotency-Key} comes back with a different request
+ * body than the one it was first used for.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException() {
+        super("Idempotency-Key was already used for a different request");
+    }
+}
@@ -0,0 +1,242 @@
+package com.vehicle.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vehicle.dto.CreateOrderRequest;
+import com.vehicle.dto.OrderResponse;
+import com.vehicle.entity.IdempotencyKey;
+import com.vehicle.entity.User;
+import com.vehicle.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Runs each order submission with an {@code Idempotency-Key} at most once per
+ * user and key.
+ * <p>
+ * A duplicate that arrives while the first submission is still running waits
+ * for it and gets its outcome, including its error. A duplicate of a
+ * completed submission gets the stored response replayed without touching
+ * the order tables. Completed responses are kept in a TTL-bounded cache in
+ * front of the {@code idempotency_keys} table, whose rows are written in the
+ * order transaction and kept for {@code vehicle.orders.idempotency.retention-ms}.
+ * Failed submissions are not stored, so a retry runs again.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long retentionMs;
+    private final Cache<Key, Completed> completed;
+    private final Map<Key, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(
+            IdempotencyKeyRepository repository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${vehicle.orders.idempotency.cache-size:10000}") long cacheSize,
+            @Value("${vehicle.orders.idempotency.cache-ttl-ms:600000}") long cacheTtlMs,
+            @Value("${vehicle.orders.idempotency.retention-ms:86400000}") long retentionMs
+    ) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.retentionMs = retentionMs;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "idempotency");
+    }
+
+    /**
+     * @param checkout creates the order and must pass the claim on to
+     *                 {@link #save}, inside its transaction
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     * @throws IllegalArgumentException      if the key is blank or too long
+     */
+    public Result execute(User user, String idempotencyKey, CreateOrderRequest request,
+                          Function<Claim, OrderResponse> checkout) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        Key key = new Key(user.getId(), idempotencyKey);
+        String requestHash = hash(request);
+
+        Completed done = completed.getIfPresent(key);
+        if (done != null) {
+            return replay(done, requestHash, "replayed");
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            if (!running.requestHash().equals(requestHash)) {
+                throw reused();
+            }
+            count("coalesced");
+            return new Result(await(running.response()), true);
+        }
+
+        try {
+            // Completed after our first look, or by an earlier process
+            done = completed.getIfPresent(key);
+            if (done == null) {
+                done = findStored(key).orElse(null);
+            }
+            if (done != null) {
+                mine.response().complete(done.response());
+                return replay(done, requestHash, "replayed");
+            }
+
+            OrderResponse response;
+            try {
+                response = checkout.apply(new Claim(key.userId(), key.idempotencyKey(), requestHash));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance stored the key first; its order stands and ours rolled back
+                done = findStored(key).orElseThrow(() -> e);
+                mine.response().complete(done.response());
+                return replay(done, requestHash, "replayed");
+            }
+            completed.put(key, new Completed(requestHash, response));
+            mine.response().complete(response);
+            count("executed");
+            return new Result(response, false);
+        } catch (RuntimeException e) {
+            mine.response().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Stores the outcome of a claimed submission. Must run in the transaction
+     * that creates the order, so both commit or neither does.
+     *
+     * @throws DataIntegrityViolationException if the key was stored concurrently
+     */
+    public void save(Claim claim, OrderResponse response) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order " + response.getId(), e);
+        }
+        repository.save(IdempotencyKey.builder()
+                .userId(claim.userId())
+                .idempotencyKey(claim.idempotencyKey())
+                .requestHash(claim.requestHash())
+                .orderId(response.getId())
+                .response(json)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${vehicle.orders.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = repository.deleteCreatedBefore(LocalDateTime.now().minus(Duration.ofMillis(retentionMs)));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Optional<Completed> findStored(Key key) {
+        return repository.findByUserIdAndIdempotencyKey(key.userId(), key.idempotencyKey()).map(stored -> {
+            try {
+                Completed done = new Completed(
+                        stored.getRequestHash(), objectMapper.readValue(stored.getResponse(), OrderResponse.class));
+                completed.put(key, done);
+                return done;
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not read stored response of order " + stored.getOrderId(), e);
+            }
+        });
+    }
+
+    private Result replay(Completed done, String requestHash, String result) {
+        if (!done.requestHash().equals(requestHash)) {
+            throw reused();
+        }
+        count(result);
+        return new Result(done.response(), true);
+    }
+
+    private IdempotencyKeyReusedException reused() {
+        count("conflict");
+        return new IdempotencyKeyReusedException();
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("vehicle.orders.idempotency", "result", result).increment();
+    }
+
+    private static OrderResponse await(CompletableFuture<OrderResponse> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String hash(CreateOrderRequest request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash order request", e);
+        }
+    }
+
+    private record Key(Long userId, String idempotencyKey) {
+    }
+
+    private record Completed(String requestHash, OrderResponse response) {
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<OrderResponse> response) {
+    }
+
+    /**
+     * Right to run a submission, handed to the checkout so it can store the
+     * outcome with the order.
+     */
+    public record Claim(Long userId, String idempotencyKey, String requestHash) {
+    }
+
+    /**
+     * @param replayed true if the response comes from an earlier or concurrent
+     *                 submission rather than this one
+     */
+    public record Result(OrderResponse response, boolean replayed) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.vehicle.service;
+
+import com.vehicle.dto.VehicleDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-local stand-in for a shared vehicle cache, for tests and for
+ * running a single instance without a cache server.
+ */
+@Component
+@ConditionalOnProperty(name = "vehicle.cache.vehicles.shared", havingValue = "in-memory")
+public class InMemorySharedVehicleCache implements SharedVehicleCache {
+
+    private final Map<Long, VehicleDTO> vehicles = new ConcurrentHashMap<>();
+
+    @Override
+    public VehicleDTO get(Long vehicleId) {
+        return vehicles.get(vehicleId);
+    }
+
+    @Override
+    public void put(VehicleDTO vehicle) {
+        vehicles.put(vehicle.getId(), vehicle);
+    }
+
+    @Override
+    public void evict(Long vehicleId) {
+        vehicles.remove(vehicleId);
+    }
+}
@@ -0,0 +1,11 @@
+package com.vehicle.service;
+
+/**
+ * Thrown when a checkout asks for more units of a vehicle than are available.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(int available, int requested) {
+        super("Not enough vehicles available. Available: " + available + ", Requested: " + requested);
+    }
+}
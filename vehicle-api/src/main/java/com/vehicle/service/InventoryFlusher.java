@@ -0,0 +1,123 @@
+package com.vehicle.service;
+
+import com.vehicle.event.StockChangedEvent;
+import com.vehicle.repository.VehicleRepository;
+import com.vehicle.repository.VehicleStock;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes committed sales from {@link InventoryLedger} to the {@code vehicles}
+ * table and reconciles the ledger against the database.
+ * <p>
+ * Deltas are coalesced per vehicle between flushes, so a hot vehicle costs one
+ * relative UPDATE per flush no matter how many checkouts it served. Rows are
+ * updated in ascending id order to keep lock order deterministic.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryFlusher {
+
+    private static final String APPLY_DELTA =
+            "UPDATE vehicles SET quantity_available = quantity_available + ?, version = version + 1 WHERE id = ?";
+
+    private final InventoryLedger ledger;
+    private final VehicleRepository vehicleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${vehicle.inventory.mode:DATABASE}")
+    private InventoryMode inventoryMode;
+
+    @Value("${vehicle.inventory.flush-batch-size:500}")
+    private int batchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<Long, Integer> suspectedDrift = new HashMap<>();
+
+    @Scheduled(fixedDelayString = "${vehicle.inventory.flush-interval-ms:200}")
+    public void flush() {
+        if (inventoryMode != InventoryMode.LEDGER) {
+            return;
+        }
+        lock.lock();
+        try {
+            SortedMap<Long, Integer> deltas = ledger.drainPending();
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                        APPLY_DELTA, deltas.entrySet(), batchSize, (ps, delta) -> {
+                            ps.setInt(1, delta.getValue());
+                            ps.setLong(2, delta.getKey());
+                        }));
+            } catch (RuntimeException e) {
+                ledger.restorePending(deltas);
+                log.warn("Failed to flush stock for {} vehicles, will retry", deltas.size(), e);
+                return;
+            }
+            deltas.keySet().forEach(this::publishStock);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Compares every tracked counter with its row. Drift is only corrected when
+     * two consecutive runs see the same value, which filters out counters that
+     * were sampled mid-update.
+     */
+    @Scheduled(
+            initialDelayString = "${vehicle.inventory.reconcile-interval-ms:60000}",
+            fixedDelayString = "${vehicle.inventory.reconcile-interval-ms:60000}"
+    )
+    public void reconcile() {
+        if (inventoryMode != InventoryMode.LEDGER) {
+            return;
+        }
+        lock.lock();
+        try {
+            Map<Long, Integer> observed = new HashMap<>();
+            for (VehicleStock level : vehicleRepository.findAllStock()) {
+                int drift = ledger.drift(level.getId(), level.getQuantityAvailable());
+                if (drift == 0) {
+                    continue;
+                }
+                if (Integer.valueOf(drift).equals(suspectedDrift.get(level.getId()))) {
+                    log.warn("Correcting inventory drift of {} for vehicle {}", drift, level.getId());
+                    ledger.correct(level.getId(), drift);
+                    publishStock(level.getId());
+                } else {
+                    observed.put(level.getId(), drift);
+                }
+            }
+            suspectedDrift = observed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void publishStock(Long vehicleId) {
+        eventPublisher.publishEvent(new StockChangedEvent(vehicleId, ledger.available(vehicleId), StockChangedEvent.NO_VERSION));
+    }
+}
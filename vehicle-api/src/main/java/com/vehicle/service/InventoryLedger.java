@@ -0,0 +1,247 @@
+package com.vehicle.service;
+
+import com.vehicle.repository.VehicleRepository;
+import com.vehicle.repository.VehicleStock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stock counters used by checkout in {@link InventoryMode#LEDGER} mode.
+ * <p>
+ * Each vehicle has CAS-updated counters for the quantity still available, the
+ * quantity held by checkouts that have not committed yet, and the committed
+ * delta that has not been written to the {@code vehicles} table. For every
+ * vehicle the ledger keeps {@code available + reserved == database + pending}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryLedger {
+
+    private final VehicleRepository vehicleRepository;
+
+    @Value("${vehicle.inventory.mode:DATABASE}")
+    private InventoryMode inventoryMode;
+
+    private final Map<Long, Stock> stocks = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (inventoryMode != InventoryMode.LEDGER) {
+            return;
+        }
+        List<VehicleStock> levels = vehicleRepository.findAllStock();
+        levels.forEach(level -> stocks.putIfAbsent(level.getId(), new Stock(level.getQuantityAvailable())));
+        log.info("Inventory ledger loaded stock for {} vehicles", levels.size());
+    }
+
+    /**
+     * Reserves every line or none of them. Lines are taken in ascending vehicle
+     * id order and rolled back if a later line cannot be satisfied.
+     *
+     * @param quantities requested quantity per vehicle id
+     * @throws InsufficientStockException if a vehicle has too little stock
+     * @throws RuntimeException if a vehicle does not exist
+     */
+    public Reservation reserve(Map<Long, Integer> quantities) {
+        SortedMap<Long, Integer> lines = new TreeMap<>(quantities);
+        long[] vehicleIds = new long[lines.size()];
+        int[] reserved = new int[lines.size()];
+
+        int taken = 0;
+        try {
+            for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+                Stock stock = stock(line.getKey());
+                int requested = line.getValue();
+                int available = stock.tryTake(requested);
+                if (available < requested) {
+                    throw new InsufficientStockException(available, requested);
+                }
+                vehicleIds[taken] = line.getKey();
+                reserved[taken] = requested;
+                taken++;
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < taken; i++) {
+                stocks.get(vehicleIds[i]).giveBack(reserved[i]);
+            }
+            throw e;
+        }
+        return new Reservation(vehicleIds, reserved);
+    }
+
+    /**
+     * Turns a reservation into a committed sale that the flusher will write out.
+     */
+    public void confirm(Reservation reservation) {
+        if (!reservation.settled.compareAndSet(false, true)) {
+            return;
+        }
+        for (int i = 0; i < reservation.vehicleIds.length; i++) {
+            Stock stock = stocks.get(reservation.vehicleIds[i]);
+            stock.pending.addAndGet(-reservation.quantities[i]);
+            stock.reserved.addAndGet(-reservation.quantities[i]);
+            dirty.add(reservation.vehicleIds[i]);
+        }
+    }
+
+    /**
+     * Returns reserved stock after the checkout failed or rolled back.
+     */
+    public void release(Reservation reservation) {
+        if (!reservation.settled.compareAndSet(false, true)) {
+            return;
+        }
+        for (int i = 0; i < reservation.vehicleIds.length; i++) {
+            stocks.get(reservation.vehicleIds[i]).giveBack(reservation.quantities[i]);
+        }
+    }
+
+    /**
+     * Puts stock of cancelled orders back on sale once their release has been
+     * committed to the {@code vehicles} table, so nothing is left for the
+     * flusher to write. Vehicles the ledger does not track yet are skipped;
+     * they load the released stock from the table when first used.
+     *
+     * @param quantities units returned per vehicle id
+     */
+    public void restock(Map<Long, Integer> quantities) {
+        quantities.forEach((vehicleId, quantity) -> {
+            Stock stock = stocks.get(vehicleId);
+            if (stock != null) {
+                stock.available.addAndGet(quantity);
+            }
+        });
+    }
+
+    /**
+     * @return the quantity currently available, or -1 if the vehicle is not tracked yet
+     */
+    public int available(Long vehicleId) {
+        Stock stock = stocks.get(vehicleId);
+        return stock == null ? -1 : stock.available.get();
+    }
+
+    /**
+     * Removes and returns the committed deltas that have not been written yet,
+     * keyed by vehicle id in ascending order.
+     */
+    SortedMap<Long, Integer> drainPending() {
+        SortedMap<Long, Integer> deltas = new TreeMap<>();
+        for (Long vehicleId : dirty) {
+            dirty.remove(vehicleId);
+            int delta = stocks.get(vehicleId).pending.getAndSet(0);
+            if (delta != 0) {
+                deltas.put(vehicleId, delta);
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Puts deltas back after a failed write so the next flush retries them.
+     */
+    void restorePending(Map<Long, Integer> deltas) {
+        deltas.forEach((vehicleId, delta) -> {
+            stocks.get(vehicleId).pending.addAndGet(delta);
+            dirty.add(vehicleId);
+        });
+    }
+
+    /**
+     * Difference between what the database plus unwritten sales says and what
+     * the counters hold. Non-zero drift means the row was changed outside the
+     * ledger, or a counter update was in flight while it was sampled.
+     */
+    int drift(Long vehicleId, int databaseQuantity) {
+        Stock stock = stocks.get(vehicleId);
+        if (stock == null) {
+            return 0;
+        }
+        return databaseQuantity + stock.pending.get() - stock.available.get() - stock.reserved.get();
+    }
+
+    void correct(Long vehicleId, int drift) {
+        Stock stock = stocks.get(vehicleId);
+        if (stock != null) {
+            stock.available.addAndGet(drift);
+        }
+    }
+
+    /**
+     * Re-bases the counters on a quantity written straight to the database,
+     * e.g. by a catalog import.
+     */
+    void resync(Long vehicleId, int databaseQuantity) {
+        int drift = drift(vehicleId, databaseQuantity);
+        if (drift != 0) {
+            correct(vehicleId, drift);
+        }
+    }
+
+    private Stock stock(Long vehicleId) {
+        Stock stock = stocks.get(vehicleId);
+        if (stock != null) {
+            return stock;
+        }
+        VehicleStock level = vehicleRepository.findStockById(vehicleId)
+                .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + vehicleId));
+        return stocks.computeIfAbsent(vehicleId, id -> new Stock(level.getQuantityAvailable()));
+    }
+
+    private static final class Stock {
+        private final AtomicInteger available;
+        private final AtomicInteger reserved = new AtomicInteger();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private Stock(int available) {
+            this.available = new AtomicInteger(available);
+        }
+
+        /**
+         * @return the quantity that was available before the attempt; the take
+         * succeeded if it is at least {@code quantity}
+         */
+        private int tryTake(int quantity) {
+            while (true) {
+                int current = available.get();
+                if (current < quantity) {
+                    return current;
+                }
+                if (available.compareAndSet(current, current - quantity)) {
+                    reserved.addAndGet(quantity);
+                    return current;
+                }
+            }
+        }
+
+        private void giveBack(int quantity) {
+            reserved.addAndGet(-quantity);
+            available.addAndGet(quantity);
+        }
+    }
+
+    /**
+     * Stock held for one checkout until it is confirmed or released.
+     */
+    public static final class Reservation {
+        private final long[] vehicleIds;
+        private final int[] quantities;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Reservation(long[] vehicleIds, int[] quantities) {
+            this.vehicleIds = vehicleIds;
+            this.quantities = quantities;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.vehicle.service;
+
+/**
+ * How {@link OrderService} keeps stock consistent during checkout.
+ */
+public enum InventoryMode {
+    /**
+     * Stock is reserved against in-memory counters in {@link InventoryLedger}
+     * and written to the database in batches by {@link InventoryFlusher}.
+     * Opt-in: only safe while a single API instance owns the catalog, and
+     * stock sold since the last flush is lost if the process dies.
+     */
+    LEDGER,
+    /**
+     * Stock is checked and decremented on the vehicle rows inside the
+     * checkout transaction, which locks them with {@code SELECT ... FOR UPDATE}.
+     * The default.
+     */
+    DATABASE,
+    /**
+     * Stock is decremented on the vehicle rows with updates conditional on
+     * their version, retried by {@link OptimisticInventory} on conflict. No
+     * row is locked before it is written.
+     */
+    OPTIMISTIC
+}
@@ -1,32 +1,83 @@
 package com.vehicle.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import com.vehicle.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Function;
+import java.time.Instant;
+import java.util.*;
 
+/**
+ * Issues and verifies HS256 tokens.
+ * <p>
+ * Keys are decoded once into a keyring keyed by key id. New tokens are signed
+ * with the active key and carry its id in the {@code kid} header; verification
+ * picks the key by that id, so a new key can be rolled out while tokens signed
+ * with the previous one stay valid until it is removed from the ring. Tokens
+ * without a {@code kid} were issued before the keyring and are checked against
+ * the {@code default} key. The parser is immutable and shared by all threads.
+ */
 @Service
 public class JwtService {
 
-    private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String LEGACY_KEY_ID = "default";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String FIRST_NAME_CLAIM = "firstName";
+    private static final String LAST_NAME_CLAIM = "lastName";
     // 30 days in milliseconds
     private static final long JWT_EXPIRATION = 1000L * 60 * 60 * 24 * 30;
-    
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    private final Map<String, Key> keyring;
+    private final String activeKeyId;
+    private final Key activeKey;
+    private final JwtParser parser;
+    private final Timer verification;
+
+    /**
+     * @param keys        comma-separated {@code id:base64-secret} pairs
+     * @param activeKeyId id of the key new tokens are signed with
+     */
+    public JwtService(
+            @Value("${vehicle.security.jwt.keys:default:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}") String keys,
+            @Value("${vehicle.security.jwt.active-key-id:default}") String activeKeyId,
+            MeterRegistry registry
+    ) {
+        Map<String, Key> ring = new HashMap<>();
+        for (String entry : keys.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("JWT keys must be given as id:secret pairs");
+            }
+            String id = entry.substring(0, separator).trim();
+            byte[] secret = Base64.getDecoder().decode(entry.substring(separator + 1).trim());
+            ring.put(id, Keys.hmacShaKeyFor(secret));
+        }
+        if (!ring.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("Active JWT key '" + activeKeyId + "' is not in the keyring");
+        }
+        this.keyring = Map.copyOf(ring);
+        this.activeKeyId = activeKeyId;
+        this.activeKey = ring.get(activeKeyId);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new KeyringResolver())
+                .build();
+        this.verification = Timer.builder("vehicle.security.jwt.verify")
+                .description("JWT signature and expiry verification")
+                .register(registry);
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -34,40 +85,71 @@ public class JwtService {
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        long now = System.currentTimeMillis();
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        if (userDetails instanceof User user) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(FIRST_NAME_CLAIM, user.getFirstName());
+            claims.put(LAST_NAME_CLAIM, user.getLastName());
+        }
         return Jwts
                 .builder()
-                .setClaims(extraClaims)
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
+                .setClaims(claims)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + JWT_EXPIRATION))
+                .signWith(activeKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    /**
+     * Verifies the signature and expiry and returns the claims.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged,
+     *                                      expired or signed with an unknown key
+     */
+    public TokenClaims parse(String token) {
+        return verification.record(() -> verify(token));
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private TokenClaims verify(String token) {
+        var jws = parser.parseClaimsJws(token);
+        Claims claims = jws.getBody();
+        List<String> roles = new ArrayList<>();
+        if (claims.get(ROLES_CLAIM) instanceof Collection<?> values) {
+            values.forEach(value -> roles.add(String.valueOf(value)));
+        }
+        String keyId = jws.getHeader().getKeyId();
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        return new TokenClaims(
+                claims.getSubject(),
+                userId == null ? null : userId.longValue(),
+                claims.get(FIRST_NAME_CLAIM, String.class),
+                claims.get(LAST_NAME_CLAIM, String.class),
+                claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+                claims.getExpiration() == null ? null : claims.getExpiration().toInstant(),
+                roles,
+                keyId == null ? LEGACY_KEY_ID : keyId
+        );
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public boolean isTokenValid(TokenClaims claims, UserDetails userDetails) {
+        return claims.subject().equals(userDetails.getUsername()) && !claims.isExpired(Instant.now());
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = java.util.Base64.getDecoder().decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private final class KeyringResolver extends SigningKeyResolverAdapter {
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            String keyId = header.getKeyId() == null ? LEGACY_KEY_ID : header.getKeyId();
+            Key key = keyring.get(keyId);
+            if (key == null) {
+                throw new SignatureException("Unknown signing key: " + keyId);
+            }
+            return key;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package com.vehicle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory token buckets for login and signup attempts, one per account and
+ * one per client address.
+ * <p>
+ * Each bucket is stored as the time at which it will be full again (the
+ * generic cell rate algorithm), so taking a token is a single CAS on one
+ * {@code long} with no lock and no refill timer. Idle buckets are full by
+ * definition and are evicted after they have been idle for a full refill.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final Limit accountLimit;
+    private final Limit addressLimit;
+    private final Cache<String, AtomicLong> buckets;
+
+    public LoginRateLimiter(
+            @Value("${vehicle.security.rate-limit.enabled:true}") boolean enabled,
+            @Value("${vehicle.security.rate-limit.account.capacity:10}") int accountCapacity,
+            @Value("${vehicle.security.rate-limit.account.per-minute:10}") int accountPerMinute,
+            @Value("${vehicle.security.rate-limit.address.capacity:50}") int addressCapacity,
+            @Value("${vehicle.security.rate-limit.address.per-minute:120}") int addressPerMinute,
+            @Value("${vehicle.security.rate-limit.max-buckets:100000}") long maxBuckets
+    ) {
+        this.enabled = enabled;
+        this.accountLimit = new Limit(accountCapacity, accountPerMinute);
+        this.addressLimit = new Limit(addressCapacity, addressPerMinute);
+        long idleNanos = Math.max(accountLimit.fullNanos(), addressLimit.fullNanos());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofNanos(idleNanos))
+                .build();
+    }
+
+    /**
+     * Takes one token from the address bucket and, if an account is given,
+     * one from the account bucket.
+     *
+     * @throws TooManyRequestsException if either bucket is empty
+     */
+    public void acquire(String account, String address) {
+        if (!enabled) {
+            return;
+        }
+        if (address != null) {
+            take("ip:" + address, addressLimit);
+        }
+        if (account != null) {
+            take("account:" + account.toLowerCase(Locale.ROOT), accountLimit);
+        }
+    }
+
+    private void take(String key, Limit limit) {
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            long start = Math.max(current, now);
+            long next = start + limit.intervalNanos();
+            long debt = next - now;
+            if (debt > limit.fullNanos()) {
+                long waitNanos = debt - limit.fullNanos();
+                throw new TooManyRequestsException("Too many attempts, please retry later",
+                        Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param intervalNanos time to earn one token
+     * @param fullNanos     time to refill an empty bucket
+     */
+    private record Limit(long intervalNanos, long fullNanos) {
+        private Limit(int capacity, int perMinute) {
+            this(TimeUnit.MINUTES.toNanos(1) / perMinute, TimeUnit.MINUTES.toNanos(1) / perMinute * capacity);
+        }
+    }
+}
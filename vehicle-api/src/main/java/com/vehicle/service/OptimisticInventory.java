@@ -0,0 +1,144 @@
+package com.vehicle.service;
+
+import com.vehicle.entity.Vehicle;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Takes stock for {@link InventoryMode#OPTIMISTIC} checkouts.
+ * <p>
+ * Each line is written with an UPDATE that only matches the version the
+ * checkout read, so a concurrent change to the vehicle makes the line miss
+ * instead of overwriting it. A line that missed is re-read on its own,
+ * checked against the fresh quantity and tried again after a jittered
+ * backoff; lines already written stay written. All lines of a checkout share
+ * {@code max-attempts}. The checkout must run at READ COMMITTED, or a re-read
+ * would return the same stale row.
+ */
+@Component
+public class OptimisticInventory {
+
+    private static final String TAKE =
+            "UPDATE vehicles SET quantity_available = ?, version = version + 1 WHERE id = ? AND version = ?";
+    private static final String RELOAD = "SELECT quantity_available, version FROM vehicles WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+
+    private final Counter applied;
+    private final Counter conflicts;
+    private final Counter exhausted;
+    private final DistributionSummary attempts;
+
+    public OptimisticInventory(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${vehicle.inventory.optimistic.max-attempts:5}") int maxAttempts,
+            @Value("${vehicle.inventory.optimistic.backoff-ms:2}") long backoffMs,
+            @Value("${vehicle.inventory.optimistic.max-backoff-ms:50}") long maxBackoffMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+
+        this.applied = Counter.builder("vehicle.inventory.optimistic.updates")
+                .description("Version-checked stock updates by outcome")
+                .tag("result", "applied")
+                .register(meterRegistry);
+        this.conflicts = Counter.builder("vehicle.inventory.optimistic.updates")
+                .description("Version-checked stock updates by outcome")
+                .tag("result", "conflict")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("vehicle.inventory.optimistic.exhausted")
+                .description("Checkouts that failed because every attempt conflicted")
+                .register(meterRegistry);
+        this.attempts = DistributionSummary.builder("vehicle.inventory.optimistic.attempts")
+                .description("Attempts per checkout until its stock was taken")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes the stock of every line or throws, in which case the caller's
+     * transaction must roll back to undo the lines already written.
+     *
+     * @param quantities requested quantity per vehicle id
+     * @param vehicles   the cart's vehicles as the checkout read them
+     * @return the quantity left and the version it was written with, per vehicle id
+     * @throws InsufficientStockException if a vehicle has too little stock
+     * @throws StockConflictException     if a line still conflicts when the attempts are used up
+     */
+    public Map<Long, Level> take(Map<Long, Integer> quantities, Map<Long, Vehicle> vehicles) {
+        Map<Long, Level> remaining = new HashMap<>();
+        int attempt = 1;
+        // Lines go one by one in ascending id order and a conflicting line is
+        // retried before the next one, so row locks are always taken in the
+        // same order as in DATABASE mode and checkouts cannot deadlock
+        for (Long vehicleId : new TreeSet<>(quantities.keySet())) {
+            int requested = quantities.get(vehicleId);
+            Vehicle vehicle = vehicles.get(vehicleId);
+            Level level = new Level(vehicle.getQuantityAvailable(), vehicle.getVersion());
+            while (true) {
+                if (level.quantity() < requested) {
+                    throw new InsufficientStockException(level.quantity(), requested);
+                }
+                if (jdbcTemplate.update(TAKE, level.quantity() - requested, vehicleId, level.version()) > 0) {
+                    applied.increment();
+                    remaining.put(vehicleId, new Level(level.quantity() - requested, level.version() + 1));
+                    break;
+                }
+                conflicts.increment();
+                if (attempt == maxAttempts) {
+                    attempts.record(attempt);
+                    exhausted.increment();
+                    throw new StockConflictException(vehicleId);
+                }
+                backOff(attempt, vehicleId);
+                attempt++;
+                level = reload(vehicleId);
+            }
+        }
+        attempts.record(attempt);
+        return remaining;
+    }
+
+    private Level reload(Long vehicleId) {
+        return jdbcTemplate.query(RELOAD, rs -> {
+            if (!rs.next()) {
+                throw new RuntimeException("Vehicle not found with id: " + vehicleId);
+            }
+            return new Level(rs.getInt(1), rs.getLong(2));
+        }, vehicleId);
+    }
+
+    /**
+     * Sleeps for a random time up to an exponentially growing cap ("full
+     * jitter"), so checkouts that collided do not collide again in lockstep.
+     */
+    private void backOff(int attempt, Long vehicleId) {
+        long cap = Math.min(maxBackoffMs, backoffMs << Math.min(attempt - 1, 20));
+        if (cap <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StockConflictException(vehicleId);
+        }
+    }
+
+    record Level(int quantity, long version) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.vehicle.service;
+
+import com.vehicle.entity.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cancels orders that stayed {@code PENDING} for longer than
+ * {@code vehicle.orders.expiry.pending-ttl-ms} and returns their stock.
+ * <p>
+ * Each batch is one transaction: the expired orders are locked, cancelled
+ * with a single UPDATE, and released through {@link StockRelease}, which
+ * costs one UPDATE per vehicle however many orders the batch holds. Orders
+ * with a status change still waiting in the outbox are left to the pipeline.
+ */
+@Slf4j
+@Component
+public class OrderExpirySweeper {
+
+    private static final String SELECT_EXPIRED =
+            "SELECT id FROM orders WHERE status = 'PENDING' AND created_at < :cutoff " +
+            "AND NOT EXISTS (SELECT 1 FROM order_outbox o WHERE o.order_id = orders.id) " +
+            "LIMIT :limit FOR UPDATE";
+    private static final String CANCEL_ORDERS =
+            "UPDATE orders SET status = 'CANCELLED' WHERE id IN (:ids) AND status = 'PENDING'";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockRelease stockRelease;
+    private final OrderSummaryProjection orderSummaries;
+    private final Counter expired;
+    private final long pendingTtlMs;
+    private final int batchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public OrderExpirySweeper(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            StockRelease stockRelease,
+            OrderSummaryProjection orderSummaries,
+            MeterRegistry meterRegistry,
+            @Value("${vehicle.orders.expiry.pending-ttl-ms:1800000}") long pendingTtlMs,
+            @Value("${vehicle.orders.expiry.batch-size:1000}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.stockRelease = stockRelease;
+        this.orderSummaries = orderSummaries;
+        this.pendingTtlMs = pendingTtlMs;
+        this.batchSize = batchSize;
+        this.expired = Counter.builder("vehicle.orders.cancelled")
+                .description("Orders cancelled and their stock released")
+                .tag("reason", "expired")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${vehicle.orders.expiry.sweep-interval-ms:60000}")
+    public void scheduledSweep() {
+        try {
+            int cancelled = sweep();
+            if (cancelled > 0) {
+                log.info("Cancelled {} expired orders", cancelled);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Order expiry sweep failed, will retry", e);
+        }
+    }
+
+    /**
+     * Cancels every order that has expired so far, batch by batch.
+     *
+     * @return the number of orders cancelled
+     */
+    public int sweep() {
+        if (pendingTtlMs <= 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusNanos(pendingTtlMs * 1_000_000));
+            int total = 0;
+            while (true) {
+                int cancelled = transactionTemplate.execute(status -> cancelBatch(cutoff));
+                total += cancelled;
+                expired.increment(cancelled);
+                if (cancelled < batchSize) {
+                    return total;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int cancelBatch(Timestamp cutoff) {
+        List<Long> orderIds = jdbcTemplate.queryForList(SELECT_EXPIRED, new MapSqlParameterSource()
+                .addValue("cutoff", cutoff)
+                .addValue("limit", batchSize), Long.class);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        // No ORDER BY, so the scan stops after the limit instead of sorting every expired order.
+        // The rows are locked, so every selected order is still PENDING here
+        jdbcTemplate.update(CANCEL_ORDERS, new MapSqlParameterSource("ids", orderIds));
+        Map<Long, OrderStatus> statuses = new LinkedHashMap<>();
+        orderIds.forEach(id -> statuses.put(id, OrderStatus.CANCELLED));
+        orderSummaries.updateStatus(statuses);
+        stockRelease.release(orderIds);
+        return orderIds.size();
+    }
+}
@@ -0,0 +1,430 @@
+package com.vehicle.service;
+
+import com.vehicle.entity.OrderOutboxEntry;
+import com.vehicle.entity.OrderStatus;
+import com.vehicle.entity.OrderTransition;
+import com.vehicle.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies order status changes asynchronously from the {@code order_outbox}
+ * table.
+ * <p>
+ * Requests are written to the outbox in the caller's transaction, so they
+ * commit together with the order. A pool of worker threads drains the table
+ * in batches, one transaction per batch. Each entry stores its
+ * {@code shard}, {@code order_id % workers}, and worker {@code i} reads shard
+ * {@code i} through an index on {@code (shard, available_at, id)}. Workers
+ * never compete for rows, throughput grows with the worker count, and the
+ * changes of one order are applied in the order they were requested. All
+ * instances must run the same worker count; entries written under another
+ * count are moved to their new shard at startup. Each status UPDATE is
+ * conditional on the current status, so an entry applied twice, e.g. by a
+ * second instance, changes nothing. A committed request wakes the owning
+ * worker at once; otherwise workers poll every
+ * {@code vehicle.orders.pipeline.poll-interval-ms}.
+ * <p>
+ * When a batch fails its entries are applied again one by one, so a single
+ * bad entry cannot hold back the rest. An entry that keeps failing is retried
+ * after {@code retry-delay-ms} until it has failed {@code max-attempts}
+ * times, then moved to {@code order_outbox_dead_letters} with its last
+ * error, like an entry whose transition is unknown.
+ */
+@Slf4j
+@Component
+public class OrderPipeline {
+
+    private static final String SELECT_BATCH =
+            "SELECT id, order_id, transition, created_at, attempts FROM order_outbox " +
+            "WHERE shard = ? AND available_at <= ? ORDER BY available_at, id LIMIT ?";
+    private static final String APPLY_TRANSITION =
+            "UPDATE orders SET status = ? WHERE id = ? AND status IN (?, ?)";
+    private static final String DELETE_ENTRY = "DELETE FROM order_outbox WHERE id = ?";
+    private static final String POSTPONE_ENTRY =
+            "UPDATE order_outbox SET attempts = attempts + 1, available_at = ? WHERE id = ?";
+    private static final String MOVE_TO_DEAD_LETTERS =
+            "INSERT INTO order_outbox_dead_letters (id, order_id, transition, created_at, attempts, failed_at, error) " +
+            "SELECT id, order_id, transition, created_at, ?, ?, ? FROM order_outbox WHERE id = ?";
+    private static final String REASSIGN_SHARDS =
+            "UPDATE order_outbox SET shard = MOD(order_id, ?) WHERE shard <> MOD(order_id, ?)";
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String SAMPLE_BACKLOG = "SELECT COUNT(*), MIN(created_at) FROM order_outbox";
+
+    private final OrderOutboxRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockRelease stockRelease;
+    private final OrderSummaryProjection orderSummaries;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long retryDelayMs;
+    private final int maxAttempts;
+
+    private final Semaphore[] wakeUps;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    private final Timer lag;
+    private final Counter failures;
+    private final Counter deadLetters;
+    private final Counter cancelled;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestAgeMs = new AtomicLong();
+
+    public OrderPipeline(
+            OrderOutboxRepository outboxRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            StockRelease stockRelease,
+            OrderSummaryProjection orderSummaries,
+            MeterRegistry meterRegistry,
+            @Value("${vehicle.orders.pipeline.enabled:true}") boolean enabled,
+            @Value("${vehicle.orders.pipeline.workers:4}") int workers,
+            @Value("${vehicle.orders.pipeline.batch-size:200}") int batchSize,
+            @Value("${vehicle.orders.pipeline.poll-interval-ms:500}") long pollIntervalMs,
+            @Value("${vehicle.orders.pipeline.retry-delay-ms:5000}") long retryDelayMs,
+            @Value("${vehicle.orders.pipeline.max-attempts:10}") int maxAttempts
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.stockRelease = stockRelease;
+        this.orderSummaries = orderSummaries;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.workers = Math.max(1, workers);
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.retryDelayMs = retryDelayMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.wakeUps = new Semaphore[this.workers];
+        for (int i = 0; i < this.workers; i++) {
+            wakeUps[i] = new Semaphore(0);
+        }
+
+        this.lag = Timer.builder("vehicle.orders.pipeline.lag")
+                .description("Time from a status change request to its application")
+                .register(meterRegistry);
+        this.failures = Counter.builder("vehicle.orders.pipeline.failures")
+                .description("Failed attempts to apply an outbox entry")
+                .register(meterRegistry);
+        this.deadLetters = Counter.builder("vehicle.orders.pipeline.dead.letters")
+                .description("Outbox entries given up on and moved to the dead letters")
+                .register(meterRegistry);
+        this.cancelled = Counter.builder("vehicle.orders.cancelled")
+                .description("Orders cancelled and their stock released")
+                .tag("reason", "requested")
+                .register(meterRegistry);
+        Gauge.builder("vehicle.orders.outbox.backlog", backlog, AtomicLong::get)
+                .description("Outbox entries not applied yet")
+                .register(meterRegistry);
+        Gauge.builder("vehicle.orders.outbox.oldest.age", oldestAgeMs, value -> value.get() / 1000.0)
+                .description("Age of the oldest outbox entry not applied yet")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a status change. Must run inside the transaction that makes the
+     * change valid; the owning worker is woken once it commits.
+     */
+    public void enqueue(Long orderId, OrderTransition transition) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(OrderOutboxEntry.builder()
+                .orderId(orderId)
+                .shard(worker(orderId))
+                .transition(transition)
+                .createdAt(now)
+                .availableAt(now)
+                .build());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeUps[worker(orderId)].release();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int moved = jdbcTemplate.update(REASSIGN_SHARDS, workers, workers);
+            if (moved > 0) {
+                log.info("Moved {} outbox entries to the shards of {} workers", moved, workers);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not move outbox entries to the shards of {} workers", workers, e);
+        }
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            int worker = i;
+            threads.add(Thread.ofPlatform()
+                    .name("order-pipeline-" + worker)
+                    .daemon()
+                    .start(() -> work(worker)));
+        }
+        log.info("Order pipeline started with {} workers", workers);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Semaphore wakeUp : wakeUps) {
+            wakeUp.release();
+        }
+        for (Thread thread : threads) {
+            thread.join(pollIntervalMs + 5000);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vehicle.orders.pipeline.lag-sample-interval-ms:5000}")
+    public void sampleBacklog() {
+        jdbcTemplate.query(SAMPLE_BACKLOG, rs -> {
+            backlog.set(rs.getLong(1));
+            Timestamp oldest = rs.getTimestamp(2);
+            oldestAgeMs.set(oldest == null ? 0
+                    : Math.max(0, System.currentTimeMillis() - oldest.getTime()));
+        });
+    }
+
+    private void work(int worker) {
+        while (running) {
+            int processed;
+            try {
+                processed = drain(worker);
+            } catch (RuntimeException e) {
+                log.warn("Order pipeline worker {} could not read the outbox", worker, e);
+                processed = 0;
+            }
+            if (processed < batchSize) {
+                try {
+                    wakeUps[worker].tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    wakeUps[worker].drainPermits();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies one batch of the worker's entries.
+     *
+     * @return the number of entries taken from the outbox
+     */
+    int drain(int worker) {
+        List<Entry> batch = jdbcTemplate.query(SELECT_BATCH, OrderPipeline::mapEntry,
+                worker, Timestamp.valueOf(LocalDateTime.now()), batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Entry> known = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            if (entry.transition() == null) {
+                deadLetter(entry, entry.attempts(), "Unknown transition " + entry.storedTransition());
+            } else {
+                known.add(entry);
+            }
+        }
+        if (known.isEmpty()) {
+            return batch.size();
+        }
+        try {
+            apply(known);
+        } catch (RuntimeException e) {
+            if (known.size() == 1) {
+                retryLater(known.get(0), e);
+                return batch.size();
+            }
+            log.warn("Failed to apply {} outbox entries together, applying them one by one", known.size(), e);
+            for (Entry entry : known) {
+                try {
+                    apply(List.of(entry));
+                } catch (RuntimeException entryFailure) {
+                    retryLater(entry, entryFailure);
+                }
+            }
+        }
+        return batch.size();
+    }
+
+    /**
+     * Applies the entries and deletes them in one transaction.
+     */
+    private void apply(List<Entry> entries) {
+        boolean[] applied = new boolean[entries.size()];
+        List<Long> cancelledOrders = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            cancelledOrders.clear();
+            // Entries run in outbox order, so SHIP follows CONFIRM of the same order
+            int[][] counts = jdbcTemplate.batchUpdate(APPLY_TRANSITION, entries, batchSize, (ps, entry) -> {
+                ps.setString(1, entry.transition().getTo().name());
+                ps.setLong(2, entry.orderId());
+                bindFrom(ps, 3, entry.transition());
+            });
+            flatten(counts, entries, applied);
+            // Stock of every order this batch cancelled goes back in one grouped release
+            Map<Long, OrderStatus> statuses = new LinkedHashMap<>();
+            for (int i = 0; i < entries.size(); i++) {
+                if (!applied[i]) {
+                    continue;
+                }
+                Entry entry = entries.get(i);
+                statuses.put(entry.orderId(), entry.transition().getTo());
+                if (entry.transition() == OrderTransition.CANCEL) {
+                    cancelledOrders.add(entry.orderId());
+                }
+            }
+            orderSummaries.updateStatus(statuses);
+            if (!cancelledOrders.isEmpty()) {
+                stockRelease.release(cancelledOrders);
+            }
+            jdbcTemplate.batchUpdate(DELETE_ENTRY, entries, batchSize,
+                    (ps, entry) -> ps.setLong(1, entry.id()));
+        });
+
+        cancelled.increment(cancelledOrders.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            lag.record(Duration.between(entry.createdAt(), now));
+            // Not applied means the order had already left the expected status
+            meterRegistry.counter("vehicle.orders.pipeline.processed",
+                    "transition", entry.transition().name(),
+                    "result", applied[i] ? "applied" : "skipped").increment();
+        }
+    }
+
+    private void retryLater(Entry entry, RuntimeException failure) {
+        failures.increment();
+        int attempts = entry.attempts() + 1;
+        if (attempts >= maxAttempts) {
+            deadLetter(entry, attempts, NestedExceptionUtils.getMostSpecificCause(failure).toString());
+            return;
+        }
+        log.warn("Failed to apply outbox entry {} of order {} (attempt {} of {}), retrying in {} ms",
+                entry.id(), entry.orderId(), attempts, maxAttempts, retryDelayMs, failure);
+        Timestamp retryAt = Timestamp.valueOf(LocalDateTime.now().plus(Duration.ofMillis(retryDelayMs)));
+        try {
+            jdbcTemplate.update(POSTPONE_ENTRY, retryAt, entry.id());
+        } catch (RuntimeException e) {
+            log.warn("Could not postpone outbox entry {}", entry.id(), e);
+        }
+    }
+
+    private void deadLetter(Entry entry, int attempts, String error) {
+        String truncated = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(MOVE_TO_DEAD_LETTERS,
+                        attempts, Timestamp.valueOf(LocalDateTime.now()), truncated, entry.id());
+                jdbcTemplate.update(DELETE_ENTRY, entry.id());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not move outbox entry {} to the dead letters", entry.id(), e);
+            return;
+        }
+        deadLetters.increment();
+        log.error("Gave up on outbox entry {} ({} of order {}) after {} attempts: {}",
+                entry.id(), entry.storedTransition(), entry.orderId(), attempts, truncated);
+    }
+
+    /**
+     * Maps an outbox row without failing on an unknown transition, which
+     * is left null so the entry can be set aside.
+     */
+    private static Entry mapEntry(ResultSet rs, int rowNum) throws SQLException {
+        String stored = rs.getString("transition");
+        OrderTransition transition = null;
+        for (OrderTransition candidate : OrderTransition.values()) {
+            if (candidate.name().equals(stored)) {
+                transition = candidate;
+                break;
+            }
+        }
+        return new Entry(
+                rs.getLong("id"),
+                rs.getLong("order_id"),
+                transition,
+                stored,
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                rs.getInt("attempts"));
+    }
+
+    /**
+     * Binds the two {@code status IN (?, ?)} placeholders, repeating the
+     * status of transitions that start from a single one.
+     */
+    private static void bindFrom(PreparedStatement ps, int index, OrderTransition transition) throws SQLException {
+        Iterator<OrderStatus> from = transition.getFrom().iterator();
+        String first = from.next().name();
+        ps.setString(index, first);
+        ps.setString(index + 1, from.hasNext() ? from.next().name() : first);
+    }
+
+    private int worker(long orderId) {
+        return (int) (orderId % workers);
+    }
+
+    /**
+     * Marks which entries changed their order, in batch order. Drivers that
+     * cannot report counts answer {@code SUCCESS_NO_INFO}, which counts as
+     * applied except for {@link OrderTransition#CANCEL}: a cancellation
+     * releases stock, so it only counts when exactly one row was moved.
+     */
+    private static void flatten(int[][] counts, List<Entry> entries, boolean[] target) {
+        int index = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                Entry entry = entries.get(index);
+                if (entry.transition() == OrderTransition.CANCEL) {
+                    if (count == Statement.SUCCESS_NO_INFO) {
+                        log.warn("Driver reported no update count for cancellation of order {}, " +
+                                "its stock is not released", entry.orderId());
+                    }
+                    target[index++] = count == 1;
+                } else {
+                    target[index++] = count != 0;
+                }
+            }
+        }
+    }
+
+    private record Entry(long id, long orderId, OrderTransition transition, String storedTransition,
+                         LocalDateTime createdAt, int attempts) {
+    }
+}
@@ -1,23 +1,42 @@
 package com.vehicle.service;
 
 import com.vehicle.dto.CreateOrderRequest;
+import com.vehicle.dto.OrderCursorPage;
 import com.vehicle.dto.OrderItemRequest;
 import com.vehicle.dto.OrderItemResponse;
 import com.vehicle.dto.OrderResponse;
+import com.vehicle.dto.OrderSummaryResponse;
 import com.vehicle.entity.*;
+import com.vehicle.event.StockChangedEvent;
 import com.vehicle.repository.OrderRepository;
+import com.vehicle.repository.OrderSummaryRepository;
 import com.vehicle.repository.VehicleRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,9 +45,55 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final VehicleRepository vehicleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryLedger inventoryLedger;
+    private final StockLevels stockLevels;
+    private final MeterRegistry meterRegistry;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderPipeline orderPipeline;
+    private final OptimisticInventory optimisticInventory;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderSummaryProjection orderSummaries;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${vehicle.inventory.mode:DATABASE}")
+    private InventoryMode inventoryMode;
+
+    @Value("${vehicle.orders.confirm-on-checkout:true}")
+    private boolean confirmOnCheckout;
 
-    @Transactional
     public OrderResponse createOrder(User user, CreateOrderRequest request) {
+        return inCheckoutTransaction(status -> placeOrder(user, request));
+    }
+
+    /**
+     * Creates the order and stores the idempotency claim with its response in
+     * the same transaction, see {@link IdempotencyStore}.
+     */
+    public OrderResponse createOrder(User user, CreateOrderRequest request, IdempotencyStore.Claim claim) {
+        return inCheckoutTransaction(status -> {
+            OrderResponse response = placeOrder(user, request);
+            idempotencyStore.save(claim, response);
+            return response;
+        });
+    }
+
+    /**
+     * Runs a checkout in its own transaction. OPTIMISTIC checkouts run at
+     * READ COMMITTED so a retry re-reads the latest committed stock; the
+     * other modes keep the default isolation and its cheaper connection setup.
+     */
+    private OrderResponse inCheckoutTransaction(TransactionCallback<OrderResponse> checkout) {
+        if (inventoryMode != InventoryMode.OPTIMISTIC) {
+            return transactionTemplate.execute(checkout);
+        }
+        TransactionTemplate readCommitted = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readCommitted.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        return readCommitted.execute(checkout);
+    }
+
+    private OrderResponse placeOrder(User user, CreateOrderRequest request) {
+        recordOnCompletion(Timer.builder("vehicle.orders.create"));
         // Create new order
         Order order = Order.builder()
                 .user(user)
@@ -40,28 +105,55 @@ public class OrderService {
         List<OrderItem> orderItems = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
 
-        // Process each order item
-        for (OrderItemRequest itemRequest : request.getItems()) {
-            Vehicle vehicle = vehicleRepository.findById(itemRequest.getVehicleId())
-                    .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + itemRequest.getVehicleId()));
+        // Merge duplicate lines so each vehicle is reserved and priced once
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemRequest item : request.getItems()) {
+            try {
+                quantities.merge(item.getVehicleId(), item.getQuantity(), Math::addExact);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Quantity of vehicle " + item.getVehicleId() + " is too large");
+            }
+        }
 
-            // Check if enough quantity is available
-            if (vehicle.getQuantityAvailable() < itemRequest.getQuantity()) {
-                throw new RuntimeException("Not enough vehicles available. Available: " + 
-                        vehicle.getQuantityAvailable() + ", Requested: " + itemRequest.getQuantity());
+        Map<Long, Vehicle> vehicles;
+        Map<Long, OptimisticInventory.Level> remaining = Map.of();
+        try {
+            if (inventoryMode == InventoryMode.LEDGER) {
+                reserveInLedger(quantities);
+            }
+            vehicles = loadVehicles(quantities);
+            if (inventoryMode == InventoryMode.OPTIMISTIC) {
+                remaining = optimisticInventory.take(quantities, vehicles);
             }
+        } catch (InsufficientStockException e) {
+            meterRegistry.counter("vehicle.orders.oversell.rejected", "mode", inventoryMode.name()).increment();
+            throw e;
+        }
 
-            // Update vehicle quantity
-            vehicle.setQuantityAvailable(vehicle.getQuantityAvailable() - itemRequest.getQuantity());
-            vehicleRepository.save(vehicle);
+        // Process each order item
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Vehicle vehicle = vehicles.get(line.getKey());
+            int quantity = line.getValue();
+
+            if (inventoryMode == InventoryMode.DATABASE) {
+                // Update vehicle quantity; the rows are locked and were validated in loadVehicles.
+                // The flush bumps the locked row's version by one
+                vehicle.setQuantityAvailable(vehicle.getQuantityAvailable() - quantity);
+                eventPublisher.publishEvent(new StockChangedEvent(
+                        vehicle.getId(), vehicle.getQuantityAvailable(), vehicle.getVersion() + 1));
+            } else if (inventoryMode == InventoryMode.OPTIMISTIC) {
+                // Written by OptimisticInventory; the loaded entity keeps its old quantity and version
+                OptimisticInventory.Level level = remaining.get(vehicle.getId());
+                eventPublisher.publishEvent(new StockChangedEvent(vehicle.getId(), level.quantity(), level.version()));
+            }
 
             // Create order item
             OrderItem orderItem = OrderItem.builder()
                     .order(order)
                     .vehicle(vehicle)
-                    .quantity(itemRequest.getQuantity())
+                    .quantity(quantity)
                     .pricePerUnit(vehicle.getPrice())
-                    .totalPrice(vehicle.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())))
+                    .totalPrice(vehicle.getPrice().multiply(BigDecimal.valueOf(quantity)))
                     .build();
 
             orderItems.add(orderItem);
@@ -72,25 +164,217 @@ public class OrderService {
         order.setTotalAmount(totalAmount);
         
         Order savedOrder = orderRepository.save(order);
+        orderSummaries.add(savedOrder);
+        if (confirmOnCheckout) {
+            // Confirmation happens in the pipeline, after this transaction
+            orderPipeline.enqueue(savedOrder.getId(), OrderTransition.CONFIRM);
+        }
         return mapToOrderResponse(savedOrder);
     }
 
+    /**
+     * Queues a status change for the order pipeline.
+     *
+     * @throws IllegalStateException if the order cannot move to {@code status} from where it is now
+     */
+    @Transactional
+    public void requestStatus(Long orderId, OrderStatus status) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+        OrderTransition transition = OrderTransition.into(status);
+        if (transition == null || !transition.getFrom().contains(order.getStatus())) {
+            throw new IllegalStateException("Order " + orderId + " cannot move from "
+                    + order.getStatus() + " to " + status);
+        }
+        orderPipeline.enqueue(orderId, transition);
+    }
+
+    /**
+     * Queues the cancellation of one of the user's orders. The pipeline
+     * releases its stock when the cancellation is applied.
+     *
+     * @throws IllegalStateException if the order has already shipped or was cancelled
+     */
+    @Transactional
+    public void cancelOrder(User user, Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .filter(found -> found.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+        if (!OrderTransition.CANCEL.getFrom().contains(order.getStatus())) {
+            throw new IllegalStateException("Order " + orderId + " cannot be cancelled once "
+                    + order.getStatus());
+        }
+        orderPipeline.enqueue(orderId, OrderTransition.CANCEL);
+    }
+
+    /**
+     * Loads every vehicle of the cart in one query. In {@link InventoryMode#DATABASE}
+     * mode the rows are locked in ascending id order, so concurrent checkouts
+     * over overlapping carts cannot deadlock, and stock is validated for all
+     * lines before anything is written.
+     */
+    private Map<Long, Vehicle> loadVehicles(Map<Long, Integer> quantities) {
+        List<Vehicle> found = inventoryMode == InventoryMode.DATABASE
+                ? vehicleRepository.findAllByIdInForUpdate(quantities.keySet())
+                : vehicleRepository.findAllByIdInOrderById(quantities.keySet());
+
+        Map<Long, Vehicle> vehicles = found.stream()
+                .collect(Collectors.toMap(Vehicle::getId, Function.identity()));
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Vehicle vehicle = vehicles.get(line.getKey());
+            if (vehicle == null) {
+                throw new RuntimeException("Vehicle not found with id: " + line.getKey());
+            }
+            // Check if enough quantity is available
+            if (inventoryMode == InventoryMode.DATABASE && vehicle.getQuantityAvailable() < line.getValue()) {
+                throw new InsufficientStockException(vehicle.getQuantityAvailable(), line.getValue());
+            }
+        }
+        return vehicles;
+    }
+
+    /**
+     * Holds stock for the whole cart in the ledger. The reservation becomes a
+     * sale when the checkout transaction commits and is returned otherwise.
+     * The stock read model follows the ledger at both steps.
+     */
+    private void reserveInLedger(Map<Long, Integer> quantities) {
+        InventoryLedger.Reservation reservation = inventoryLedger.reserve(quantities);
+        publishLedgerStock(quantities.keySet());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    inventoryLedger.confirm(reservation);
+                } else {
+                    inventoryLedger.release(reservation);
+                    publishLedgerStock(quantities.keySet());
+                }
+            }
+        });
+    }
+
+    private void publishLedgerStock(Collection<Long> vehicleIds) {
+        vehicleIds.forEach(id -> stockLevels.set(id, inventoryLedger::available));
+    }
+
+    /**
+     * Times the calling transactional method up to the end of its
+     * transaction, so the commit is included, tagged with the outcome.
+     */
+    private void recordOnCompletion(Timer.Builder timer) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                sample.stop(timer.tag("outcome", status == STATUS_COMMITTED ? "committed" : "rolled_back")
+                        .register(meterRegistry));
+            }
+        });
+    }
+
+    /**
+     * Pages order history in the database: one query for the ids of the
+     * requested page, then one fetch of those orders with their items.
+     */
     @Transactional
     public Page<OrderResponse> getUserOrders(User user, Pageable pageable) {
-        List<Order> orders = orderRepository.findByUserWithItems(user);
-        
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), orders.size());
-        
-        List<OrderResponse> orderResponses = orders.subList(start, end)
-                .stream()
-                .map(this::mapToOrderResponse)
+        recordOnCompletion(Timer.builder("vehicle.orders.history").tag("paging", "offset"));
+        Page<Long> orderIds = orderRepository.findIdsByUser(user, pageable);
+        Map<Long, Order> orders = loadWithItems(orderIds.getContent());
+        return orderIds.map(id -> mapToOrderResponse(orders.get(id)));
+    }
+
+    /**
+     * Keyset paging over order history by {@code (createdAt, id)}. An empty
+     * cursor starts at the newest order, or the oldest when ascending.
+     */
+    @Transactional
+    public OrderCursorPage getUserOrdersAfter(User user, String cursor, int size, Sort.Direction direction) {
+        recordOnCompletion(Timer.builder("vehicle.orders.history").tag("paging", "keyset"));
+        boolean descending = direction.isDescending();
+        Limit limit = Limit.of(size + 1);
+
+        List<Long> orderIds;
+        if (cursor == null || cursor.isBlank()) {
+            Sort sort = Sort.by(direction, "createdAt").and(Sort.by(direction, "id"));
+            orderIds = orderRepository.findIdSliceByUser(user, PageRequest.of(0, size + 1, sort)).getContent();
+        } else {
+            int separator = cursor.lastIndexOf(',');
+            LocalDateTime createdAt;
+            Long id;
+            try {
+                createdAt = LocalDateTime.parse(cursor.substring(0, separator));
+                id = Long.parseLong(cursor.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            orderIds = descending
+                    ? orderRepository.findIdsByUserBefore(user, createdAt, id, limit)
+                    : orderRepository.findIdsByUserAfter(user, createdAt, id, limit);
+        }
+
+        boolean hasNext = orderIds.size() > size;
+        if (hasNext) {
+            orderIds = orderIds.subList(0, size);
+        }
+        Map<Long, Order> orders = loadWithItems(orderIds);
+        List<OrderResponse> content = orderIds.stream()
+                .map(id -> mapToOrderResponse(orders.get(id)))
                 .collect(Collectors.toList());
-                
-        return new PageImpl<>(orderResponses, pageable, orders.size());
+
+        String nextCursor = null;
+        if (hasNext) {
+            OrderResponse last = content.get(content.size() - 1);
+            nextCursor = last.getCreatedAt() + "," + last.getId();
+        }
+        return OrderCursorPage.builder()
+                .content(content)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Pages the user's order summaries, read from {@code order_summaries}
+     * alone, so the cost does not grow with the number of lines per order.
+     */
+    @Transactional
+    public Page<OrderSummaryResponse> getUserOrderSummaries(User user, Pageable pageable) {
+        recordOnCompletion(Timer.builder("vehicle.orders.summaries"));
+        return orderSummaryRepository.findByUserId(user.getId(), pageable)
+                .map(summary -> OrderSummaryResponse.builder()
+                        .id(summary.getOrderId())
+                        .totalAmount(summary.getTotalAmount())
+                        .status(summary.getStatus())
+                        .createdAt(summary.getCreatedAt())
+                        .itemCount(summary.getItemCount())
+                        .firstVehicleName(summary.getFirstVehicleName())
+                        .build());
+    }
+
+    /**
+     * One of the user's orders with all of its items.
+     */
+    @Transactional
+    public OrderResponse getUserOrder(User user, Long orderId) {
+        return loadWithItems(List.of(orderId)).values().stream()
+                .filter(order -> order.getUser().getId().equals(user.getId()))
+                .findFirst()
+                .map(OrderService::mapToOrderResponse)
+                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+    }
+
+    private Map<Long, Order> loadWithItems(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Map.of();
+        }
+        return orderRepository.findWithItemsByIdIn(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
     }
 
-    private OrderResponse mapToOrderResponse(Order order) {
+    static OrderResponse mapToOrderResponse(Order order) {
         List<OrderItemResponse> itemResponses = order.getItems().stream()
                 .map(item -> OrderItemResponse.builder()
                         .id(item.getId())
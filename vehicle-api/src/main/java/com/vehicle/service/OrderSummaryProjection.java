@@ -0,0 +1,107 @@
+package com.vehicle.service;
+
+import com.vehicle.entity.Order;
+import com.vehicle.entity.OrderItem;
+import com.vehicle.entity.OrderStatus;
+import com.vehicle.entity.OrderSummary;
+import com.vehicle.repository.OrderSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Maintains the {@code order_summaries} read model. Every write happens in
+ * the transaction that changes the order, so a summary never shows a status
+ * the order does not have.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderSummaryProjection {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private static final String UPDATE_STATUS = "UPDATE order_summaries SET status = ? WHERE order_id = ?";
+    private static final String BACKFILL =
+            "INSERT IGNORE INTO order_summaries " +
+            "(order_id, user_id, status, total_amount, item_count, first_vehicle_name, created_at) " +
+            "SELECT o.id, o.user_id, o.status, o.total_amount, " +
+            "(SELECT COUNT(*) FROM order_items i WHERE i.order_id = o.id), " +
+            "(SELECT v.name FROM order_items i JOIN vehicles v ON v.id = i.vehicle_id " +
+            "WHERE i.order_id = o.id ORDER BY i.id LIMIT 1), " +
+            "o.created_at FROM orders o " +
+            "WHERE o.id BETWEEN ? AND ? " +
+            "AND NOT EXISTS (SELECT 1 FROM order_summaries s WHERE s.order_id = o.id)";
+    private static final String COUNT_MISSING =
+            "SELECT (SELECT COUNT(*) FROM orders) - (SELECT COUNT(*) FROM order_summaries)";
+    private static final String ORDER_ID_RANGE = "SELECT MIN(id), MAX(id) FROM orders";
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the summary of a new order. Persisted with the order at flush, so
+     * both inserts go out in the same JDBC batches.
+     */
+    public void add(Order order) {
+        OrderItem first = order.getItems().isEmpty() ? null : order.getItems().get(0);
+        orderSummaryRepository.save(OrderSummary.builder()
+                .order(order)
+                .userId(order.getUser().getId())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .itemCount(order.getItems().size())
+                .firstVehicleName(first == null ? null : first.getVehicle().getName())
+                .createdAt(order.getCreatedAt())
+                .build());
+    }
+
+    /**
+     * @param statuses the new status per order id
+     */
+    public void updateStatus(Map<Long, OrderStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_STATUS, new ArrayList<>(statuses.entrySet()), BATCH_SIZE, (ps, entry) -> {
+            ps.setString(1, entry.getValue().name());
+            ps.setLong(2, entry.getKey());
+        });
+    }
+
+    /**
+     * Creates the summaries of orders placed before the read model existed.
+     * Skipped once every order has a summary. Otherwise runs one short
+     * statement per range of {@value #BACKFILL_BATCH_SIZE} order ids, up to
+     * the newest order at startup; later orders get their summary at
+     * checkout. INSERT IGNORE leaves a summary written concurrently by a
+     * checkout in place instead of failing the range.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            Long missing = jdbcTemplate.queryForObject(COUNT_MISSING, Long.class);
+            if (missing == null || missing == 0) {
+                return;
+            }
+            long[] range = jdbcTemplate.queryForObject(ORDER_ID_RANGE,
+                    (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+            long added = 0;
+            for (long from = range[0]; from <= range[1]; from += BACKFILL_BATCH_SIZE) {
+                added += jdbcTemplate.update(BACKFILL, from, Math.min(range[1], from + BACKFILL_BATCH_SIZE - 1));
+            }
+            if (added > 0) {
+                log.info("Backfilled order summaries for {} orders", added);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not backfill order summaries", e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.vehicle.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of platform threads that runs all bcrypt work.
+ * <p>
+ * Hashing is pure CPU, so the pool defaults to one thread per core and the
+ * request thread only waits for the result. When the queue is full the task
+ * is rejected at once with {@link TooManyRequestsException}, so a login storm
+ * is turned away in microseconds instead of taking every request thread and
+ * starving the catalog endpoints.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final Timer hashing;
+
+    public PasswordHashingExecutor(
+            @Value("${vehicle.security.hashing.threads:0}") int threads,
+            @Value("${vehicle.security.hashing.queue-capacity:64}") int queueCapacity,
+            MeterRegistry registry
+    ) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("vehicle.security.hashing.rejected")
+                .description("Password hashing tasks rejected because the queue was full")
+                .register(registry);
+        this.hashing = Timer.builder("vehicle.security.hashing.duration")
+                .description("Time spent hashing or verifying a password on the pool")
+                .register(registry);
+        Gauge.builder("vehicle.security.hashing.queued", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(registry);
+        Gauge.builder("vehicle.security.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+    }
+
+    /**
+     * Runs the task on the hashing pool and waits for its result. Runtime
+     * exceptions thrown by the task are rethrown unchanged.
+     *
+     * @throws TooManyRequestsException if the queue is full
+     */
+    public <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> hashing.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many login attempts in progress, please retry shortly", 1);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,23 @@
+package com.vehicle.service;
+
+import com.vehicle.dto.VehicleDTO;
+
+/**
+ * Second-level vehicle cache shared between application instances, e.g. one
+ * backed by Redis. {@link VehicleDetailCache} consults it on a local miss
+ * before going to the database, and writes changes through to it.
+ * <p>
+ * Implementations must not throw for an unavailable backend; a failed read
+ * should behave as a miss.
+ */
+public interface SharedVehicleCache {
+
+    /**
+     * @return the cached vehicle, or null on a miss
+     */
+    VehicleDTO get(Long vehicleId);
+
+    void put(VehicleDTO vehicle);
+
+    void evict(Long vehicleId);
+}
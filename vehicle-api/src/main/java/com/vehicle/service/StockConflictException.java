@@ -0,0 +1,12 @@
+package com.vehicle.service;
+
+/**
+ * Thrown when an {@link InventoryMode#OPTIMISTIC} checkout keeps losing the
+ * race for a vehicle after all of its retries.
+ */
+public class StockConflictException extends RuntimeException {
+
+    public StockConflictException(Long vehicleId) {
+        super("Stock of vehicle " + vehicleId + " is changing too fast, please retry the order");
+    }
+}
@@ -0,0 +1,220 @@
+package com.vehicle.service;
+
+import com.vehicle.dto.VehicleDTO;
+import com.vehicle.entity.Vehicle;
+import com.vehicle.event.StockChangedEvent;
+import com.vehicle.event.VehicleChangedEvent;
+import com.vehicle.repository.VehicleRepository;
+import com.vehicle.repository.VehicleStock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Read model of the available quantity per vehicle, kept apart from the
+ * catalog data so that cached vehicle details never serve stale stock and
+ * never have to be dropped because of a sale.
+ * <p>
+ * Vehicle ids are dense auto-increment values, so the levels live in a
+ * primitive array indexed by id; the rare id beyond {@link #MAX_DENSE_ID}
+ * goes to a map. Reads are lock-free. Writes take a lock so that growing the
+ * array cannot lose a concurrent update. Each level remembers the row version
+ * it was read at, so a stock event that arrives after a newer one is dropped.
+ */
+@Slf4j
+@Component
+public class StockLevels {
+
+    private static final int UNKNOWN = -1;
+    private static final int MAX_DENSE_ID = 1 << 24;
+
+    private final VehicleRepository vehicleRepository;
+    private final InventoryLedger inventoryLedger;
+    private final InventoryMode inventoryMode;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<Long, Integer> sparse = new ConcurrentHashMap<>();
+    private final Map<Long, Long> sparseVersions = new ConcurrentHashMap<>();
+    private volatile AtomicIntegerArray levels = emptyLevels(1024);
+    // Only read and written under the write lock
+    private long[] versions = emptyVersions(1024);
+
+    public StockLevels(
+            VehicleRepository vehicleRepository,
+            InventoryLedger inventoryLedger,
+            @Value("${vehicle.inventory.mode:DATABASE}") InventoryMode inventoryMode
+    ) {
+        this.vehicleRepository = vehicleRepository;
+        this.inventoryLedger = inventoryLedger;
+        this.inventoryMode = inventoryMode;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<VehicleStock> stock = vehicleRepository.findAllStock();
+        stock.forEach(level -> set(level.getId(), level.getVersion(), id -> level.getQuantityAvailable()));
+        log.info("Loaded stock levels for {} vehicles", stock.size());
+    }
+
+    /**
+     * @return the available quantity, or -1 if the vehicle is unknown
+     */
+    public int get(Long vehicleId) {
+        if (vehicleId == null || vehicleId < 0) {
+            return UNKNOWN;
+        }
+        if (vehicleId >= MAX_DENSE_ID) {
+            return sparse.getOrDefault(vehicleId, UNKNOWN);
+        }
+        AtomicIntegerArray current = levels;
+        return vehicleId < current.length() ? current.get(vehicleId.intValue()) : UNKNOWN;
+    }
+
+    /**
+     * @return the known levels of the given vehicles, in request order
+     */
+    public Map<Long, Integer> get(Collection<Long> vehicleIds) {
+        Map<Long, Integer> result = new LinkedHashMap<>();
+        for (Long vehicleId : vehicleIds) {
+            int quantity = get(vehicleId);
+            if (quantity != UNKNOWN) {
+                result.put(vehicleId, quantity);
+            }
+        }
+        return result;
+    }
+
+    public void set(Long vehicleId, int quantity) {
+        set(vehicleId, id -> quantity);
+    }
+
+    /**
+     * Sets the level to a value read from {@code source} while holding the
+     * write lock, so that concurrent refreshes from a live counter such as
+     * the inventory ledger cannot be applied out of order.
+     */
+    public void set(Long vehicleId, ToIntFunction<Long> source) {
+        set(vehicleId, StockChangedEvent.NO_VERSION, source);
+    }
+
+    /**
+     * Like {@link #set(Long, ToIntFunction)}, but leaves the level alone if it
+     * was already set from a newer row version. Levels set without a version
+     * keep the version they had.
+     */
+    public void set(Long vehicleId, Long version, ToIntFunction<Long> source) {
+        long rowVersion = version == null ? StockChangedEvent.NO_VERSION : version;
+        if (vehicleId >= MAX_DENSE_ID) {
+            sparse.compute(vehicleId, (id, previous) -> {
+                long held = sparseVersions.getOrDefault(id, StockChangedEvent.NO_VERSION);
+                if (previous != null && rowVersion != StockChangedEvent.NO_VERSION && rowVersion <= held) {
+                    return previous;
+                }
+                if (rowVersion != StockChangedEvent.NO_VERSION) {
+                    sparseVersions.put(id, rowVersion);
+                }
+                return source.applyAsInt(id);
+            });
+            return;
+        }
+        int index = vehicleId.intValue();
+        writeLock.lock();
+        try {
+            AtomicIntegerArray current = levels;
+            if (index >= current.length()) {
+                int length = Math.min(MAX_DENSE_ID, Math.max(index + 1, current.length() * 2));
+                AtomicIntegerArray grown = emptyLevels(length);
+                for (int i = 0; i < current.length(); i++) {
+                    grown.set(i, current.get(i));
+                }
+                long[] grownVersions = emptyVersions(length);
+                System.arraycopy(versions, 0, grownVersions, 0, versions.length);
+                levels = grown;
+                versions = grownVersions;
+                current = grown;
+            }
+            if (rowVersion != StockChangedEvent.NO_VERSION) {
+                if (rowVersion <= versions[index]) {
+                    return;
+                }
+                versions[index] = rowVersion;
+            }
+            current.set(index, source.applyAsInt(vehicleId));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long vehicleId) {
+        set(vehicleId, UNKNOWN);
+    }
+
+    /**
+     * @return the vehicle with its current stock level, or the vehicle itself
+     *         if the level is unknown or already current
+     */
+    public VehicleDTO apply(VehicleDTO vehicle) {
+        int quantity = get(vehicle.getId());
+        if (quantity == UNKNOWN || vehicle.getQuantityAvailable() == quantity) {
+            return vehicle;
+        }
+        return vehicle.toBuilder().quantityAvailable(quantity).build();
+    }
+
+    /**
+     * Events older than the level are dropped. In {@link InventoryMode#LEDGER}
+     * mode the level is re-read from the ledger under the write lock rather
+     * than taken from the event, whose value may have been sampled before a
+     * newer one was applied.
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (inventoryMode != InventoryMode.LEDGER) {
+            set(event.getVehicleId(), event.getVersion(), id -> event.getQuantityAvailable());
+            return;
+        }
+        set(event.getVehicleId(), event.getVersion(), id -> {
+            int available = inventoryLedger.available(id);
+            return available >= 0 ? available : event.getQuantityAvailable();
+        });
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (event.isRemoved()) {
+            remove(event.getVehicleId());
+        } else if (get(event.getVehicleId()) == UNKNOWN) {
+            Vehicle vehicle = event.getVehicle();
+            set(vehicle.getId(), vehicle.getVersion(), id -> vehicle.getQuantityAvailable());
+        }
+    }
+
+    private static AtomicIntegerArray emptyLevels(int length) {
+        AtomicIntegerArray array = new AtomicIntegerArray(length);
+        for (int i = 0; i < length; i++) {
+            array.set(i, UNKNOWN);
+        }
+        return array;
+    }
+
+    private static long[] emptyVersions(int length) {
+        long[] array = new long[length];
+        Arrays.fill(array, StockChangedEvent.NO_VERSION);
+        return array;
+    }
+}
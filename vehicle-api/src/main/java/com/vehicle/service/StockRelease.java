@@ -0,0 +1,114 @@
+package com.vehicle.service;
+
+import com.vehicle.event.StockChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Returns the stock of cancelled orders to the catalog.
+ * <p>
+ * The lines of all orders are summed per vehicle first, so releasing any
+ * number of orders costs one relative UPDATE per vehicle, taken in ascending
+ * id order like checkout locks. The UPDATE bumps the row version, so
+ * {@link InventoryMode#OPTIMISTIC} checkouts see the change. It is written in
+ * every mode, so a crash after the cancellation commits cannot lose the
+ * units; in {@link InventoryMode#LEDGER} mode the ledger only puts them back
+ * on sale through {@link InventoryLedger#restock} after commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockRelease {
+
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private static final String SUM_BY_VEHICLE =
+            "SELECT vehicle_id, SUM(quantity) FROM order_items WHERE order_id IN (:ids) GROUP BY vehicle_id";
+    private static final String APPLY_RELEASE =
+            "UPDATE vehicles SET quantity_available = quantity_available + :quantity, version = version + 1 " +
+            "WHERE id = :id";
+    private static final String SELECT_STOCK =
+            "SELECT id, quantity_available, version FROM vehicles WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final InventoryLedger inventoryLedger;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${vehicle.inventory.mode:DATABASE}")
+    private InventoryMode inventoryMode;
+
+    /**
+     * Must run in the transaction that cancelled the orders, so the stock
+     * comes back exactly when the cancellation commits.
+     *
+     * @return the units released per vehicle id
+     */
+    public SortedMap<Long, Integer> release(Collection<Long> orderIds) {
+        SortedMap<Long, Integer> quantities = sumByVehicle(orderIds);
+        if (quantities.isEmpty()) {
+            return quantities;
+        }
+
+        jdbcTemplate.batchUpdate(APPLY_RELEASE, quantities.entrySet().stream()
+                .map(line -> new MapSqlParameterSource()
+                        .addValue("quantity", line.getValue())
+                        .addValue("id", line.getKey()))
+                .toArray(MapSqlParameterSource[]::new));
+        // The rows stay locked until commit, so these are the values that will be committed
+        List<StockChangedEvent> stored = new ArrayList<>();
+        for (List<Long> chunk : chunks(quantities.keySet())) {
+            jdbcTemplate.query(SELECT_STOCK, Map.of("ids", chunk), rs -> {
+                stored.add(new StockChangedEvent(rs.getLong(1), rs.getInt(2), rs.getLong(3)));
+            });
+        }
+
+        if (inventoryMode == InventoryMode.LEDGER) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    inventoryLedger.restock(quantities);
+                    stored.forEach(event -> {
+                        int available = inventoryLedger.available(event.getVehicleId());
+                        eventPublisher.publishEvent(available >= 0
+                                ? new StockChangedEvent(event.getVehicleId(), available, StockChangedEvent.NO_VERSION)
+                                : event);
+                    });
+                }
+            });
+            return quantities;
+        }
+        stored.forEach(eventPublisher::publishEvent);
+        return quantities;
+    }
+
+    private SortedMap<Long, Integer> sumByVehicle(Collection<Long> orderIds) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (List<Long> chunk : chunks(orderIds)) {
+            jdbcTemplate.query(SUM_BY_VEHICLE, Map.of("ids", chunk), rs -> {
+                quantities.merge(rs.getLong(1), rs.getInt(2), Integer::sum);
+            });
+        }
+        return quantities;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> all = List.copyOf(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += MAX_IDS_PER_QUERY) {
+            chunks.add(all.subList(from, Math.min(all.size(), from + MAX_IDS_PER_QUERY)));
+        }
+        return chunks;
+    }
+}
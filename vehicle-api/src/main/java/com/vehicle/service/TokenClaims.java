@@ -0,0 +1,34 @@
+package com.vehicle.service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable view of a verified JWT, produced by a single parse in
+ * {@link JwtService#parse}.
+ *
+ * @param keyId  id of the key that signed the token
+ * @param roles  role claims, empty for tokens issued before roles were added
+ * @param userId user id, null for tokens issued before profile claims were added
+ */
+public record TokenClaims(
+        String subject,
+        Long userId,
+        String firstName,
+        String lastName,
+        Instant issuedAt,
+        Instant expiresAt,
+        List<String> roles,
+        String keyId
+) {
+    public TokenClaims {
+        roles = List.copyOf(roles);
+    }
+
+    /**
+     * Tokens without an expiry are treated as expired.
+     */
+    public boolean isExpired(Instant now) {
+        return expiresAt == null || !expiresAt.isAfter(now);
+    }
+}
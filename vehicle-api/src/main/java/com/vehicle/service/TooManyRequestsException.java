@@ -0,0 +1,19 @@
+package com.vehicle.service;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a request is turned away to protect the service, either by a
+ * rate limit or because a bounded work queue is full. Controllers map it to
+ * {@code 429 Too Many Requests} with a {@code Retry-After} header.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,722 @@
+package com.vehicle.service;
+
+import com.vehicle.dto.VehicleDTO;
+import com.vehicle.dto.VehicleFacetsResponse;
+import com.vehicle.entity.FuelType;
+import com.vehicle.entity.Vehicle;
+import com.vehicle.entity.VehicleType;
+import com.vehicle.event.CatalogImportedEvent;
+import com.vehicle.event.StockChangedEvent;
+import com.vehicle.event.VehicleChangedEvent;
+import com.vehicle.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process columnar index of the vehicle catalog.
+ * <p>
+ * Answers the same filters as {@link VehicleRepository#searchVehicles} from
+ * primitive columns: a bitset per vehicle type and fuel type, a price-sorted
+ * row order for range filters, and trigram postings for the substring filters
+ * on name, brand and model. Stock changes are patched in place; anything else
+ * marks the index stale and callers fall back to JPA until it is rebuilt.
+ * A stock change older than the row version a snapshot holds is dropped.
+ * While a catalog import runs, the index keeps answering from the catalog as
+ * it was before the import, with live stock, and goes stale once the import
+ * has finished.
+ * <p>
+ * The same bitsets answer facet counts: each facet value has its row set,
+ * and only the availability set depends on stock, so it is updated together
+ * with the quantity column.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VehicleCatalogIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "name", "brand", "model", "year", "price", "quantityAvailable");
+    private static final BigDecimal[] PRICE_RANGE_BOUNDS = {
+            BigDecimal.valueOf(20_000), BigDecimal.valueOf(40_000), BigDecimal.valueOf(60_000), BigDecimal.valueOf(100_000)
+    };
+
+    private final VehicleRepository vehicleRepository;
+
+    @Value("${vehicle.catalog.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${vehicle.catalog.index.max-age-ms:300000}")
+    private long maxAgeMs;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ReentrantLock patchLock = new ReentrantLock();
+    private final Map<Long, StockChangedEvent> pendingStock = new ConcurrentHashMap<>();
+    private boolean rebuilding;
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vehicle.catalog.index.check-interval-ms:1000}")
+    public void refreshIfStale() {
+        if (enabled && (isStale() || snapshot.age() > maxAgeMs)) {
+            rebuild();
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        patchLock.lock();
+        try {
+            if (rebuilding) {
+                pendingStock.merge(event.getVehicleId(), event,
+                        (held, next) -> next.isNewerThan(held.getVersion()) ? next : held);
+            }
+            Snapshot current = snapshot;
+            if (current != null && !current.patchStock(event)) {
+                invalidate();
+            }
+        } finally {
+            patchLock.unlock();
+        }
+    }
+
+    /**
+     * Changes made by an import are left to {@link #onCatalogImported}, so an
+     * import marks the index stale once rather than after every batch.
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (!event.isImported()) {
+            invalidate();
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Marks the index stale. Searches fall back to JPA until the next rebuild.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    public boolean isStale() {
+        return isStale(snapshot);
+    }
+
+    private boolean isStale(Snapshot current) {
+        return current == null || current.generation != generation.get();
+    }
+
+    public void rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            long startGeneration = generation.get();
+            setRebuilding(true);
+            long start = System.nanoTime();
+            List<Vehicle> vehicles = vehicleRepository.findAll(Sort.by("id"));
+            Snapshot built = new Snapshot(vehicles, startGeneration);
+
+            patchLock.lock();
+            try {
+                snapshot = built;
+                pendingStock.values().forEach(built::patchStock);
+                pendingStock.clear();
+                rebuilding = false;
+            } finally {
+                patchLock.unlock();
+            }
+            log.debug("Catalog index rebuilt with {} vehicles in {} ms",
+                    built.size, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            setRebuilding(false);
+            log.warn("Catalog index rebuild failed, serving searches from the database", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void setRebuilding(boolean value) {
+        patchLock.lock();
+        try {
+            rebuilding = value;
+            pendingStock.clear();
+        } finally {
+            patchLock.unlock();
+        }
+    }
+
+    /**
+     * Runs a catalog search against the index.
+     *
+     * @return the requested page, or empty when the index is stale or cannot
+     * answer the query (unsupported sort, SQL wildcards in a text filter)
+     */
+    public Optional<Page<VehicleDTO>> search(
+            String name,
+            String brand,
+            String model,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            VehicleType type,
+            FuelType fuelType,
+            Pageable pageable
+    ) {
+        Snapshot current = snapshot;
+        if (!enabled || isStale(current) || !supports(pageable, name, brand, model)) {
+            return Optional.empty();
+        }
+
+        Filters filters = new Filters(current, name, brand, model, minPrice, maxPrice, type, fuelType);
+        BitSet candidates = filters.matching(null);
+
+        int total = candidates.cardinality();
+        int[] rows = current.sortedPage(candidates, total, pageable);
+        List<VehicleDTO> content = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            content.add(current.toDTO(row));
+        }
+        return Optional.of(new PageImpl<>(content, pageable, total));
+    }
+
+    /**
+     * Counts vehicles per type, fuel type, brand and price range for the same
+     * filters {@link #search} accepts. Each facet is counted with every filter
+     * except its own. Like {@link #search}, a disabled or stale index, or a
+     * query the index cannot answer, is counted in the database.
+     */
+    public VehicleFacetsResponse facets(
+            String name,
+            String brand,
+            String model,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            VehicleType type,
+            FuelType fuelType
+    ) {
+        Snapshot current = snapshot;
+        if (!enabled || isStale(current) || hasWildcards(name, brand, model)) {
+            return databaseFacets(name, brand, model, minPrice, maxPrice, type, fuelType);
+        }
+
+        Filters filters = new Filters(current, name, brand, model, minPrice, maxPrice, type, fuelType);
+        BitSet matching = filters.matching(null);
+        BitSet inStock;
+        patchLock.lock();
+        try {
+            inStock = (BitSet) current.inStockRows.clone();
+        } finally {
+            patchLock.unlock();
+        }
+        inStock.and(matching);
+
+        Map<VehicleType, Long> typeCounts = new EnumMap<>(VehicleType.class);
+        BitSet withoutType = filters.matching(Facet.TYPE);
+        for (VehicleType value : VehicleType.values()) {
+            putCount(typeCounts, value, withoutType, current.typeRows[value.ordinal()]);
+        }
+
+        Map<FuelType, Long> fuelTypeCounts = new EnumMap<>(FuelType.class);
+        BitSet withoutFuelType = filters.matching(Facet.FUEL_TYPE);
+        for (FuelType value : FuelType.values()) {
+            putCount(fuelTypeCounts, value, withoutFuelType, current.fuelTypeRows[value.ordinal()]);
+        }
+
+        Map<String, Long> brandCounts = new TreeMap<>();
+        BitSet withoutBrand = filters.matching(Facet.BRAND);
+        current.brandRows.forEach((value, rows) -> putCount(brandCounts, value, withoutBrand, rows));
+
+        Map<String, Long> priceRangeCounts = new LinkedHashMap<>();
+        BitSet withoutPrice = filters.matching(Facet.PRICE);
+        for (int i = 0; i < current.priceRangeRows.length; i++) {
+            putCount(priceRangeCounts, priceRangeLabel(i), withoutPrice, current.priceRangeRows[i]);
+        }
+
+        return VehicleFacetsResponse.builder()
+                .totalElements(matching.cardinality())
+                .inStock(inStock.cardinality())
+                .typeCounts(typeCounts)
+                .fuelTypeCounts(fuelTypeCounts)
+                .brandCounts(brandCounts)
+                .priceRangeCounts(priceRangeCounts)
+                .build();
+    }
+
+    private VehicleFacetsResponse databaseFacets(
+            String name,
+            String brand,
+            String model,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            VehicleType type,
+            FuelType fuelType
+    ) {
+        Object[] totals = vehicleRepository.countForFacets(
+                name, brand, model, minPrice, maxPrice, type, fuelType).get(0);
+
+        Map<VehicleType, Long> typeCounts = new EnumMap<>(VehicleType.class);
+        vehicleRepository.countByType(name, brand, model, minPrice, maxPrice, null, fuelType)
+                .forEach(row -> typeCounts.put((VehicleType) row[0], ((Number) row[1]).longValue()));
+
+        Map<FuelType, Long> fuelTypeCounts = new EnumMap<>(FuelType.class);
+        vehicleRepository.countByFuelType(name, brand, model, minPrice, maxPrice, type, null)
+                .forEach(row -> fuelTypeCounts.put((FuelType) row[0], ((Number) row[1]).longValue()));
+
+        Map<String, Long> brandCounts = new TreeMap<>();
+        vehicleRepository.countByBrand(name, null, model, minPrice, maxPrice, type, fuelType)
+                .forEach(row -> brandCounts.put((String) row[0], ((Number) row[1]).longValue()));
+
+        Map<String, Long> priceRangeCounts = new LinkedHashMap<>();
+        Object[] ranges = vehicleRepository.countByPriceRange(name, brand, model, null, null, type, fuelType,
+                PRICE_RANGE_BOUNDS[0], PRICE_RANGE_BOUNDS[1], PRICE_RANGE_BOUNDS[2], PRICE_RANGE_BOUNDS[3]).get(0);
+        for (int i = 0; i < ranges.length; i++) {
+            long count = ((Number) ranges[i]).longValue();
+            if (count > 0) {
+                priceRangeCounts.put(priceRangeLabel(i), count);
+            }
+        }
+
+        return VehicleFacetsResponse.builder()
+                .totalElements(((Number) totals[0]).longValue())
+                .inStock(((Number) totals[1]).longValue())
+                .typeCounts(typeCounts)
+                .fuelTypeCounts(fuelTypeCounts)
+                .brandCounts(brandCounts)
+                .priceRangeCounts(priceRangeCounts)
+                .build();
+    }
+
+    private static <K> void putCount(Map<K, Long> counts, K key, BitSet candidates, BitSet rows) {
+        BitSet both = (BitSet) rows.clone();
+        both.and(candidates);
+        int count = both.cardinality();
+        if (count > 0) {
+            counts.put(key, (long) count);
+        }
+    }
+
+    private static String priceRangeLabel(int range) {
+        if (range == PRICE_RANGE_BOUNDS.length) {
+            return PRICE_RANGE_BOUNDS[range - 1].toPlainString() + "+";
+        }
+        String from = range == 0 ? "0" : PRICE_RANGE_BOUNDS[range - 1].toPlainString();
+        return from + "-" + PRICE_RANGE_BOUNDS[range].toPlainString();
+    }
+
+    private enum Facet {
+        TYPE, FUEL_TYPE, BRAND, PRICE
+    }
+
+    /**
+     * Row sets for each active filter, computed once so that facets can
+     * combine all of them but one.
+     */
+    private static final class Filters {
+        private final int size;
+        private final BitSet type;
+        private final BitSet fuelType;
+        private final BitSet price;
+        private final BitSet brand;
+        private final BitSet nameAndModel;
+
+        private Filters(
+                Snapshot snapshot,
+                String name,
+                String brand,
+                String model,
+                BigDecimal minPrice,
+                BigDecimal maxPrice,
+                VehicleType type,
+                FuelType fuelType
+        ) {
+            this.size = snapshot.size;
+            this.type = type == null ? null : snapshot.typeRows[type.ordinal()];
+            this.fuelType = fuelType == null ? null : snapshot.fuelTypeRows[fuelType.ordinal()];
+            this.price = minPrice == null && maxPrice == null ? null : snapshot.priceRange(minPrice, maxPrice);
+            this.brand = brand == null ? null : snapshot.textMatches(brand, snapshot.brandKeys, snapshot.brandGrams);
+            if (name == null && model == null) {
+                this.nameAndModel = null;
+            } else {
+                BitSet rows = all(size);
+                snapshot.filterText(rows, name, snapshot.nameKeys, snapshot.nameGrams);
+                snapshot.filterText(rows, model, snapshot.modelKeys, snapshot.modelGrams);
+                this.nameAndModel = rows;
+            }
+        }
+
+        private BitSet matching(Facet skipped) {
+            BitSet rows = all(size);
+            and(rows, type, skipped != Facet.TYPE);
+            and(rows, fuelType, skipped != Facet.FUEL_TYPE);
+            and(rows, price, skipped != Facet.PRICE);
+            and(rows, brand, skipped != Facet.BRAND);
+            and(rows, nameAndModel, true);
+            return rows;
+        }
+
+        private static void and(BitSet rows, BitSet filter, boolean apply) {
+            if (filter != null && apply) {
+                rows.and(filter);
+            }
+        }
+
+        private static BitSet all(int size) {
+            BitSet rows = new BitSet(size);
+            rows.set(0, size);
+            return rows;
+        }
+    }
+
+    private static boolean supports(Pageable pageable, String... textFilters) {
+        if (pageable.isUnpaged() || pageable.getOffset() > Integer.MAX_VALUE) {
+            return false;
+        }
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (orders.size() > 1 || (orders.size() == 1 && !SORTABLE_PROPERTIES.contains(orders.get(0).getProperty()))) {
+            return false;
+        }
+        return !hasWildcards(textFilters);
+    }
+
+    /**
+     * The JPA query passes text filters to LIKE, where these characters are
+     * not literals, so the index would not count the same rows.
+     */
+    private static boolean hasWildcards(String... textFilters) {
+        for (String filter : textFilters) {
+            if (filter != null && (filter.indexOf('%') >= 0 || filter.indexOf('_') >= 0 || filter.indexOf('\\') >= 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long gram(String key, int offset) {
+        return ((long) key.charAt(offset) << 32) | ((long) key.charAt(offset + 1) << 16) | key.charAt(offset + 2);
+    }
+
+    private static Map<Long, BitSet> buildGrams(String[] keys) {
+        Map<Long, BitSet> grams = new HashMap<>();
+        for (int row = 0; row < keys.length; row++) {
+            String key = keys[row];
+            for (int i = 0; i + GRAM_LENGTH <= key.length(); i++) {
+                grams.computeIfAbsent(gram(key, i), g -> new BitSet()).set(row);
+            }
+        }
+        return grams;
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable column store built from one catalog load. Only the quantity
+     * column is mutable so that sales can be applied without a rebuild.
+     */
+    private static final class Snapshot {
+
+        private final long generation;
+        private final long builtAt = System.currentTimeMillis();
+        private final int size;
+
+        private final long[] ids;
+        private final String[] names;
+        private final String[] models;
+        private final String[] brands;
+        private final int[] years;
+        private final String[] colors;
+        private final BigDecimal[] prices;
+        private final AtomicIntegerArray quantities;
+        // Guarded by patchLock
+        private final long[] stockVersions;
+        private final String[] descriptions;
+        private final String[] imageUrls;
+        private final VehicleType[] types;
+        private final FuelType[] fuelTypes;
+
+        private final String[] nameKeys;
+        private final String[] brandKeys;
+        private final String[] modelKeys;
+        private final Map<Long, BitSet> nameGrams;
+        private final Map<Long, BitSet> brandGrams;
+        private final Map<Long, BitSet> modelGrams;
+        private final BitSet[] typeRows;
+        private final BitSet[] fuelTypeRows;
+        private final Map<String, BitSet> brandRows = new HashMap<>();
+        private final BitSet[] priceRangeRows;
+        private final BitSet inStockRows;
+        private final int[] priceOrder;
+        private final BigDecimal[] sortedPrices;
+
+        private Snapshot(List<Vehicle> vehicles, long generation) {
+            this.generation = generation;
+            this.size = vehicles.size();
+            ids = new long[size];
+            names = new String[size];
+            models = new String[size];
+            brands = new String[size];
+            years = new int[size];
+            colors = new String[size];
+            prices = new BigDecimal[size];
+            quantities = new AtomicIntegerArray(size);
+            stockVersions = new long[size];
+            descriptions = new String[size];
+            imageUrls = new String[size];
+            types = new VehicleType[size];
+            fuelTypes = new FuelType[size];
+            nameKeys = new String[size];
+            brandKeys = new String[size];
+            modelKeys = new String[size];
+            typeRows = new BitSet[VehicleType.values().length];
+            fuelTypeRows = new BitSet[FuelType.values().length];
+            Arrays.setAll(typeRows, i -> new BitSet(size));
+            Arrays.setAll(fuelTypeRows, i -> new BitSet(size));
+            priceRangeRows = new BitSet[PRICE_RANGE_BOUNDS.length + 1];
+            Arrays.setAll(priceRangeRows, i -> new BitSet(size));
+            inStockRows = new BitSet(size);
+
+            for (int row = 0; row < size; row++) {
+                Vehicle vehicle = vehicles.get(row);
+                ids[row] = vehicle.getId();
+                names[row] = vehicle.getName();
+                models[row] = vehicle.getModel();
+                brands[row] = vehicle.getBrand();
+                years[row] = vehicle.getYear();
+                colors[row] = vehicle.getColor();
+                prices[row] = vehicle.getPrice();
+                quantities.set(row, vehicle.getQuantityAvailable());
+                stockVersions[row] = vehicle.getVersion() == null ? StockChangedEvent.NO_VERSION : vehicle.getVersion();
+                descriptions[row] = vehicle.getDescription();
+                imageUrls[row] = vehicle.getImageUrl();
+                types[row] = vehicle.getType();
+                fuelTypes[row] = vehicle.getFuelType();
+                nameKeys[row] = key(vehicle.getName());
+                brandKeys[row] = key(vehicle.getBrand());
+                modelKeys[row] = key(vehicle.getModel());
+                if (vehicle.getType() != null) {
+                    typeRows[vehicle.getType().ordinal()].set(row);
+                }
+                if (vehicle.getFuelType() != null) {
+                    fuelTypeRows[vehicle.getFuelType().ordinal()].set(row);
+                }
+                brandRows.computeIfAbsent(vehicle.getBrand(), b -> new BitSet(size)).set(row);
+                priceRangeRows[priceBucket(vehicle.getPrice())].set(row);
+                inStockRows.set(row, vehicle.getQuantityAvailable() > 0);
+            }
+
+            nameGrams = buildGrams(nameKeys);
+            brandGrams = buildGrams(brandKeys);
+            modelGrams = buildGrams(modelKeys);
+
+            priceOrder = sortRows(comparator("price"));
+            sortedPrices = new BigDecimal[size];
+            for (int i = 0; i < size; i++) {
+                sortedPrices[i] = prices[priceOrder[i]];
+            }
+        }
+
+        private long age() {
+            return System.currentTimeMillis() - builtAt;
+        }
+
+        /**
+         * @return false if the vehicle is not in this snapshot
+         */
+        private boolean patchStock(StockChangedEvent event) {
+            int row = Arrays.binarySearch(ids, event.getVehicleId());
+            if (row < 0) {
+                return false;
+            }
+            if (!event.isNewerThan(stockVersions[row])) {
+                return true;
+            }
+            if (event.getVersion() != StockChangedEvent.NO_VERSION) {
+                stockVersions[row] = event.getVersion();
+            }
+            quantities.set(row, event.getQuantityAvailable());
+            inStockRows.set(row, event.getQuantityAvailable() > 0);
+            return true;
+        }
+
+        private static int priceBucket(BigDecimal price) {
+            int range = 0;
+            while (range < PRICE_RANGE_BOUNDS.length && price.compareTo(PRICE_RANGE_BOUNDS[range]) >= 0) {
+                range++;
+            }
+            return range;
+        }
+
+        private BitSet textMatches(String filter, String[] keys, Map<Long, BitSet> grams) {
+            BitSet rows = new BitSet(size);
+            rows.set(0, size);
+            filterText(rows, filter, keys, grams);
+            return rows;
+        }
+
+        private BitSet priceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+            int from = minPrice == null ? 0 : lowerBound(minPrice, false);
+            int to = maxPrice == null ? size : lowerBound(maxPrice, true);
+            BitSet rows = new BitSet(size);
+            for (int i = from; i < to; i++) {
+                rows.set(priceOrder[i]);
+            }
+            return rows;
+        }
+
+        /**
+         * First position whose price is {@code >= price}, or {@code > price}
+         * when {@code inclusive} is set.
+         */
+        private int lowerBound(BigDecimal price, boolean inclusive) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = sortedPrices[mid].compareTo(price);
+                if (cmp < 0 || (inclusive && cmp == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void filterText(BitSet candidates, String filter, String[] keys, Map<Long, BitSet> grams) {
+            if (filter == null) {
+                return;
+            }
+            String needle = key(filter);
+            for (int i = 0; i + GRAM_LENGTH <= needle.length() && !candidates.isEmpty(); i++) {
+                BitSet posting = grams.get(gram(needle, i));
+                if (posting == null) {
+                    candidates.clear();
+                    return;
+                }
+                candidates.and(posting);
+            }
+            for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+                if (!keys[row].contains(needle)) {
+                    candidates.clear(row);
+                }
+            }
+        }
+
+        private int[] sortedPage(BitSet candidates, int total, Pageable pageable) {
+            int offset = (int) pageable.getOffset();
+            int length = Math.max(0, Math.min(pageable.getPageSize(), total - offset));
+            int[] page = new int[length];
+            if (length == 0) {
+                return page;
+            }
+
+            Sort.Order order = pageable.getSort().isSorted() ? pageable.getSort().iterator().next() : null;
+            boolean descending = order != null && order.isDescending();
+            String property = order == null ? "id" : order.getProperty();
+
+            int[] ordered;
+            if (property.equals("id")) {
+                ordered = candidates.stream().toArray();
+                if (descending) {
+                    reverse(ordered);
+                }
+            } else if (property.equals("price") && !descending) {
+                ordered = Arrays.stream(priceOrder).filter(candidates::get).toArray();
+            } else {
+                Comparator<Integer> comparator = comparator(property);
+                ordered = sortMatches(candidates, descending ? comparator.reversed() : comparator);
+            }
+            System.arraycopy(ordered, offset, page, 0, length);
+            return page;
+        }
+
+        private static void reverse(int[] rows) {
+            for (int i = 0, j = rows.length - 1; i < j; i++, j--) {
+                int row = rows[i];
+                rows[i] = rows[j];
+                rows[j] = row;
+            }
+        }
+
+        private Comparator<Integer> comparator(String property) {
+            return switch (property) {
+                case "price" -> Comparator.comparing((Integer row) -> prices[row]);
+                case "name" -> Comparator.comparing((Integer row) -> nameKeys[row]);
+                case "brand" -> Comparator.comparing((Integer row) -> brandKeys[row]);
+                case "model" -> Comparator.comparing((Integer row) -> modelKeys[row]);
+                case "year" -> Comparator.comparingInt((Integer row) -> years[row]);
+                case "quantityAvailable" -> {
+                    int[] stock = new int[size];
+                    Arrays.setAll(stock, quantities::get);
+                    yield Comparator.comparingInt((Integer row) -> stock[row]);
+                }
+                default -> throw new IllegalStateException("Unsupported sort property: " + property);
+            };
+        }
+
+        private int[] sortRows(Comparator<Integer> comparator) {
+            BitSet all = new BitSet(size);
+            all.set(0, size);
+            return sortMatches(all, comparator);
+        }
+
+        /**
+         * Rows are stored in id order, so a stable sort keeps ascending id as
+         * the tie-breaker in both sort directions.
+         */
+        private int[] sortMatches(BitSet rows, Comparator<Integer> comparator) {
+            return rows.stream().boxed().sorted(comparator).mapToInt(Integer::intValue).toArray();
+        }
+
+        private VehicleDTO toDTO(int row) {
+            return VehicleDTO.builder()
+                    .id(ids[row])
+                    .name(names[row])
+                    .model(models[row])
+                    .brand(brands[row])
+                    .year(years[row])
+                    .color(colors[row])
+                    .price(prices[row])
+                    .quantityAvailable(quantities.get(row))
+                    .description(descriptions[row])
+                    .imageUrl(imageUrls[row])
+                    .type(types[row])
+                    .fuelType(fuelTypes[row])
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.vehicle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vehicle.dto.VehicleDTO;
+import com.vehicle.event.VehicleChangedEvent;
+import com.vehicle.repository.VehicleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Cache of vehicle details by id, in front of an optional
+ * {@link SharedVehicleCache}.
+ * <p>
+ * The local level is a size-bounded Caffeine cache, whose W-TinyLFU policy
+ * keeps the frequently viewed vehicles when the catalog does not fit.
+ * Concurrent misses on one id wait for a single load. Both levels are
+ * updated from catalog events after the change commits. Stock is not
+ * tracked here; callers overlay it from {@link StockLevels}, so sales never
+ * touch the cache. Entries expire after
+ * {@code vehicle.cache.vehicles.expire-after-write-ms}, which bounds
+ * staleness for rows changed outside the application.
+ */
+@Component
+public class VehicleDetailCache implements MeterBinder {
+
+    private final VehicleRepository vehicleRepository;
+    private final SharedVehicleCache shared;
+    private final boolean enabled;
+    private final Cache<Long, VehicleDTO> cache;
+
+    private Counter sharedHits;
+    private Counter sharedMisses;
+
+    public VehicleDetailCache(
+            VehicleRepository vehicleRepository,
+            ObjectProvider<SharedVehicleCache> shared,
+            @Value("${vehicle.cache.vehicles.enabled:true}") boolean enabled,
+            @Value("${vehicle.cache.vehicles.max-size:10000}") long maxSize,
+            @Value("${vehicle.cache.vehicles.expire-after-write-ms:21600000}") long expireAfterWriteMs
+    ) {
+        this.vehicleRepository = vehicleRepository;
+        this.shared = shared.getIfAvailable();
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @throws RuntimeException if the vehicle does not exist
+     */
+    public VehicleDTO get(Long vehicleId) {
+        return enabled ? cache.get(vehicleId, this::load) : load(vehicleId);
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (event.isRemoved()) {
+            cache.invalidate(event.getVehicleId());
+            if (shared != null) {
+                shared.evict(event.getVehicleId());
+            }
+            return;
+        }
+        VehicleDTO vehicle = VehicleService.mapToDTO(event.getVehicle());
+        if (enabled) {
+            cache.put(vehicle.getId(), vehicle);
+        }
+        if (shared != null) {
+            shared.put(vehicle);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "vehicles");
+        Gauge.builder("vehicle.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of vehicle detail lookups served by the local cache")
+                .register(registry);
+        sharedHits = Counter.builder("vehicle.cache.shared.gets").tag("result", "hit").register(registry);
+        sharedMisses = Counter.builder("vehicle.cache.shared.gets").tag("result", "miss").register(registry);
+    }
+
+    private VehicleDTO load(Long vehicleId) {
+        if (shared != null) {
+            VehicleDTO vehicle = shared.get(vehicleId);
+            count(vehicle != null ? sharedHits : sharedMisses);
+            if (vehicle != null) {
+                return vehicle;
+            }
+        }
+        VehicleDTO vehicle = vehicleRepository.findById(vehicleId)
+                .map(VehicleService::mapToDTO)
+                .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + vehicleId));
+        if (shared != null) {
+            shared.put(vehicle);
+        }
+        return vehicle;
+    }
+
+    private static void count(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
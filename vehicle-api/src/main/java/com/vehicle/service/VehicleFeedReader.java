@@ -0,0 +1,162 @@
+package com.vehicle.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Reads a vehicle feed one record at a time.
+ * <p>
+ * CSV feeds must start with a header row; quoted fields may contain commas,
+ * doubled quotes and line breaks. NDJSON records are handed on as raw lines
+ * so that JSON parsing happens with the rest of the validation, in parallel.
+ */
+final class VehicleFeedReader implements Iterator<VehicleFeedReader.FeedRecord>, Closeable {
+
+    /**
+     * One feed record. CSV records have {@code fields}; NDJSON records have
+     * the unparsed {@code json} line. {@code error} is set for rows that
+     * could not be split into fields.
+     */
+    record FeedRecord(long line, Map<String, String> fields, String json, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final ExportFormat format;
+    private final List<String> header;
+    private long line;
+    private FeedRecord next;
+
+    VehicleFeedReader(Reader source, ExportFormat format) {
+        this.reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source, 64 * 1024);
+        this.format = format;
+        if (format == ExportFormat.CSV) {
+            List<String> columns = readCsvRow();
+            if (columns == null) {
+                this.header = List.of();
+            } else {
+                this.header = columns.stream().map(String::trim).toList();
+            }
+        } else {
+            this.header = List.of();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = format == ExportFormat.CSV ? readCsvRecord() : readJsonRecord();
+        }
+        return next != null;
+    }
+
+    @Override
+    public FeedRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        FeedRecord record = next;
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private FeedRecord readJsonRecord() {
+        String text;
+        do {
+            text = readLine();
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+        return new FeedRecord(line, null, text, null);
+    }
+
+    private FeedRecord readCsvRecord() {
+        List<String> values;
+        long start;
+        do {
+            start = line + 1;
+            values = readCsvRow();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isBlank());
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        String error = values.size() > header.size()
+                ? "expected " + header.size() + " columns but found " + values.size()
+                : null;
+        return new FeedRecord(start, fields, null, error);
+    }
+
+    /**
+     * @return the fields of the next row, or null at the end of the input
+     */
+    private List<String> readCsvRow() {
+        String text = readLine();
+        if (text == null) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == text.length()) {
+                if (!quoted) {
+                    break;
+                }
+                String continuation = readLine();
+                if (continuation == null) {
+                    break;
+                }
+                field.append('\n');
+                text = continuation;
+                i = 0;
+                continue;
+            }
+            char c = text.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < text.length() && text.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        values.add(field.toString());
+        return values;
+    }
+
+    private String readLine() {
+        try {
+            String text = reader.readLine();
+            if (text != null) {
+                line++;
+            }
+            return text;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.vehicle.service;
+
+import com.vehicle.dto.VehicleImportResult;
+import com.vehicle.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Runs catalog imports at startup.
+ * <p>
+ * An empty catalog is seeded from {@code vehicle.import.seed}. A feed named
+ * by {@code vehicle.import.file} is imported on every start; together with
+ * {@code vehicle.import.exit=true} this turns the application into a one-off
+ * import command. The format follows the file extension, and {@code .gz}
+ * files are decompressed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VehicleImportRunner implements ApplicationRunner {
+
+    private final VehicleImportService vehicleImportService;
+    private final VehicleRepository vehicleRepository;
+    private final ResourceLoader resourceLoader;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${vehicle.import.seed:}")
+    private String seed;
+
+    @Value("${vehicle.import.file:}")
+    private String file;
+
+    @Value("${vehicle.import.exit:false}")
+    private boolean exit;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!seed.isBlank() && vehicleRepository.count() == 0) {
+            log.info("Vehicle catalog is empty, seeding from {}", seed);
+            importResource(seed);
+        }
+        if (file.isBlank()) {
+            return;
+        }
+        VehicleImportResult result = importResource(file);
+        if (exit) {
+            int status = result.getInvalid() > 0 ? 1 : 0;
+            System.exit(SpringApplication.exit(context, () -> status));
+        }
+    }
+
+    private VehicleImportResult importResource(String location) throws IOException {
+        Resource resource = resourceLoader.getResource(location.contains(":") ? location : "file:" + location);
+        String name = location.endsWith(".gz") ? location.substring(0, location.length() - 3) : location;
+        ExportFormat format = ExportFormat.from(name.substring(name.lastIndexOf('.') + 1));
+        try (InputStream in = location.endsWith(".gz")
+                ? new GZIPInputStream(resource.getInputStream(), 64 * 1024)
+                : resource.getInputStream();
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return vehicleImportService.importFeed(reader, format);
+        }
+    }
+}
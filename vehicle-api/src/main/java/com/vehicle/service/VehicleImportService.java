@@ -0,0 +1,396 @@
+package com.vehicle.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicle.dto.VehicleImportResult;
+import com.vehicle.entity.FuelType;
+import com.vehicle.entity.Vehicle;
+import com.vehicle.entity.VehicleType;
+import com.vehicle.event.CatalogImportedEvent;
+import com.vehicle.event.StockChangedEvent;
+import com.vehicle.event.VehicleChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Types;
+import java.time.Year;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bulk import of vehicle feeds in CSV or NDJSON, the same layouts the export
+ * endpoint writes.
+ * <p>
+ * The feed is read sequentially in batches. Each batch is validated in
+ * parallel and de-duplicated by brand, model, year and color, the natural key
+ * of a vehicle; within a batch the last row wins. The batch is compared with
+ * the stored rows so that unchanged vehicles are skipped, and the rest are
+ * upserted with one JDBC batch in one transaction.
+ * <p>
+ * After each batch commits, in-process copies of the catalog are updated
+ * through the usual events: stock-only changes publish
+ * {@link StockChangedEvent}, new or edited vehicles publish
+ * {@link VehicleChangedEvent}. The inventory ledger is re-based on the
+ * imported quantities. Once the import ends, also when it fails part way,
+ * a single {@link CatalogImportedEvent} lets copies that cannot be patched
+ * per vehicle reload once instead of after every batch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VehicleImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String UPSERT =
+            "INSERT INTO vehicles (name, model, brand, year, color, price, quantity_available, " +
+            "description, image_url, vehicle_type, fuel_type) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE name = VALUES(name), price = VALUES(price), " +
+            "quantity_available = VALUES(quantity_available), description = VALUES(description), " +
+            "image_url = VALUES(image_url), vehicle_type = VALUES(vehicle_type), fuel_type = VALUES(fuel_type), " +
+            "version = version + 1";
+
+    private static final String SELECT_BY_KEYS =
+            "SELECT id, name, model, brand, year, color, price, quantity_available, description, image_url, " +
+            "vehicle_type, fuel_type, version FROM vehicles WHERE (brand, model, year, color) IN ";
+
+    private static final RowMapper<Vehicle> VEHICLE_ROW = (rs, rowNum) -> Vehicle.builder()
+            .id(rs.getLong("id"))
+            .name(rs.getString("name"))
+            .model(rs.getString("model"))
+            .brand(rs.getString("brand"))
+            .year(rs.getInt("year"))
+            .color(rs.getString("color"))
+            .price(rs.getBigDecimal("price"))
+            .quantityAvailable(rs.getInt("quantity_available"))
+            .description(rs.getString("description"))
+            .imageUrl(rs.getString("image_url"))
+            .type(rs.getString("vehicle_type") == null ? null : VehicleType.valueOf(rs.getString("vehicle_type")))
+            .fuelType(rs.getString("fuel_type") == null ? null : FuelType.valueOf(rs.getString("fuel_type")))
+            .version(rs.getLong("version"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryLedger ledger;
+    private final ObjectMapper objectMapper;
+
+    @Value("${vehicle.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${vehicle.import.progress-interval-ms:5000}")
+    private long progressIntervalMs;
+
+    private final ReentrantLock importLock = new ReentrantLock();
+
+    /**
+     * Imports a whole feed. Only one import runs at a time.
+     *
+     * @throws IllegalStateException if another import is running
+     */
+    public VehicleImportResult importFeed(Reader source, ExportFormat format) {
+        if (!importLock.tryLock()) {
+            throw new IllegalStateException("Another vehicle import is already running");
+        }
+        Progress progress = new Progress();
+        try (VehicleFeedReader reader = new VehicleFeedReader(source, format)) {
+            List<VehicleFeedReader.FeedRecord> batch = new ArrayList<>(batchSize);
+            while (reader.hasNext()) {
+                batch.add(reader.next());
+                if (batch.size() == batchSize) {
+                    importBatch(batch, progress);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                importBatch(batch, progress);
+            }
+            VehicleImportResult result = progress.result();
+            log.info("Vehicle import finished: {}", result);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            importLock.unlock();
+            if (progress.inserted + progress.updated > 0) {
+                eventPublisher.publishEvent(new CatalogImportedEvent(progress.inserted + progress.updated));
+            }
+        }
+    }
+
+    private void importBatch(List<VehicleFeedReader.FeedRecord> records, Progress progress) {
+        progress.read += records.size();
+        List<Validated> validated = records.parallelStream().map(this::validate).toList();
+
+        Map<Key, Vehicle> incoming = new LinkedHashMap<>();
+        for (Validated row : validated) {
+            if (row.error() != null) {
+                progress.invalid(row.line(), row.error());
+            } else if (incoming.put(Key.of(row.vehicle()), row.vehicle()) != null) {
+                progress.duplicates++;
+            }
+        }
+        if (incoming.isEmpty()) {
+            progress.report();
+            return;
+        }
+
+        Map<Key, Vehicle> existing = findByKeys(incoming.values());
+        List<Vehicle> writes = new ArrayList<>();
+        List<Key> stockOnly = new ArrayList<>();
+        List<Key> changed = new ArrayList<>();
+        for (Map.Entry<Key, Vehicle> entry : incoming.entrySet()) {
+            Vehicle stored = existing.get(entry.getKey());
+            Vehicle vehicle = entry.getValue();
+            if (stored != null && sameCatalogData(stored, vehicle)) {
+                if (stored.getQuantityAvailable().equals(vehicle.getQuantityAvailable())) {
+                    progress.unchanged++;
+                    continue;
+                }
+                stockOnly.add(entry.getKey());
+            } else {
+                changed.add(entry.getKey());
+            }
+            writes.add(vehicle);
+        }
+        if (writes.isEmpty()) {
+            progress.report();
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPSERT, writes, writes.size(), (ps, vehicle) -> {
+                    ps.setString(1, vehicle.getName());
+                    ps.setString(2, vehicle.getModel());
+                    ps.setString(3, vehicle.getBrand());
+                    ps.setInt(4, vehicle.getYear());
+                    ps.setString(5, vehicle.getColor());
+                    ps.setBigDecimal(6, vehicle.getPrice());
+                    ps.setInt(7, vehicle.getQuantityAvailable());
+                    ps.setString(8, vehicle.getDescription());
+                    ps.setString(9, vehicle.getImageUrl());
+                    setEnum(ps, 10, vehicle.getType());
+                    setEnum(ps, 11, vehicle.getFuelType());
+                }));
+
+        // Re-read so that stock events carry the version the rows were written with
+        Map<Key, Vehicle> written = findByKeys(writes);
+        for (Key key : stockOnly) {
+            Vehicle vehicle = written.get(key);
+            if (vehicle != null) {
+                publishStock(vehicle);
+            }
+            progress.stockUpdated++;
+        }
+        for (Key key : changed) {
+            Vehicle vehicle = written.get(key);
+            if (vehicle == null) {
+                continue;
+            }
+            Vehicle before = existing.get(key);
+            if (before == null) {
+                progress.inserted++;
+            } else {
+                progress.updated++;
+            }
+            eventPublisher.publishEvent(new VehicleChangedEvent(vehicle.getId(), vehicle, true));
+            if (before != null && !before.getQuantityAvailable().equals(vehicle.getQuantityAvailable())) {
+                publishStock(vehicle);
+            }
+        }
+        progress.report();
+    }
+
+    /**
+     * The import overwrote the row, so the ledger is re-based on the new
+     * quantity before the value is published.
+     */
+    private void publishStock(Vehicle vehicle) {
+        ledger.resync(vehicle.getId(), vehicle.getQuantityAvailable());
+        int available = ledger.available(vehicle.getId());
+        eventPublisher.publishEvent(available >= 0
+                ? new StockChangedEvent(vehicle.getId(), available, StockChangedEvent.NO_VERSION)
+                : new StockChangedEvent(vehicle.getId(), vehicle.getQuantityAvailable(), vehicle.getVersion()));
+    }
+
+    /**
+     * Loads the stored rows with the same natural keys as the given vehicles.
+     */
+    private Map<Key, Vehicle> findByKeys(Collection<Vehicle> vehicles) {
+        if (vehicles.isEmpty()) {
+            return Map.of();
+        }
+        StringBuilder sql = new StringBuilder(SELECT_BY_KEYS).append('(');
+        Object[] args = new Object[vehicles.size() * 4];
+        int i = 0;
+        for (Vehicle vehicle : vehicles) {
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+            args[i++] = vehicle.getBrand();
+            args[i++] = vehicle.getModel();
+            args[i++] = vehicle.getYear();
+            args[i++] = vehicle.getColor();
+        }
+        sql.append(')');
+        Map<Key, Vehicle> found = new HashMap<>();
+        jdbcTemplate.query(sql.toString(), VEHICLE_ROW, args).forEach(vehicle -> found.put(Key.of(vehicle), vehicle));
+        return found;
+    }
+
+    private Validated validate(VehicleFeedReader.FeedRecord record) {
+        if (record.error() != null) {
+            return Validated.invalid(record.line(), record.error());
+        }
+        try {
+            Map<String, ?> fields = record.json() != null
+                    ? objectMapper.readValue(record.json(), new TypeReference<Map<String, Object>>() { })
+                    : record.fields();
+            int year = Integer.parseInt(required(fields, "year"));
+            if (year < 1886 || year > Year.now().getValue() + 2) {
+                return Validated.invalid(record.line(), "year out of range: " + year);
+            }
+            BigDecimal price = new BigDecimal(required(fields, "price")).setScale(2, RoundingMode.HALF_UP);
+            int quantity = Integer.parseInt(required(fields, "quantityAvailable"));
+            if (price.signum() < 0 || quantity < 0) {
+                return Validated.invalid(record.line(), "price and quantityAvailable must not be negative");
+            }
+            String type = optional(fields, "type");
+            String fuelType = optional(fields, "fuelType");
+            return new Validated(record.line(), Vehicle.builder()
+                    .name(required(fields, "name"))
+                    .model(required(fields, "model"))
+                    .brand(required(fields, "brand"))
+                    .year(year)
+                    .color(required(fields, "color"))
+                    .price(price)
+                    .quantityAvailable(quantity)
+                    .description(optional(fields, "description"))
+                    .imageUrl(required(fields, "imageUrl"))
+                    .type(parseEnum(VehicleType.class, "type", type))
+                    .fuelType(parseEnum(FuelType.class, "fuelType", fuelType))
+                    .build(), null);
+        } catch (JsonProcessingException e) {
+            return Validated.invalid(record.line(), "malformed JSON: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            return Validated.invalid(record.line(), e.getMessage());
+        }
+    }
+
+    private static String required(Map<String, ?> fields, String name) {
+        String value = optional(fields, name);
+        if (value == null) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return value;
+    }
+
+    private static String optional(Map<String, ?> fields, String name) {
+        Object value = fields.get(name);
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid " + name + ": " + value);
+        }
+    }
+
+    private static boolean sameCatalogData(Vehicle stored, Vehicle incoming) {
+        return Objects.equals(stored.getName(), incoming.getName())
+                && stored.getPrice().compareTo(incoming.getPrice()) == 0
+                && Objects.equals(stored.getDescription(), incoming.getDescription())
+                && Objects.equals(stored.getImageUrl(), incoming.getImageUrl())
+                && stored.getType() == incoming.getType()
+                && stored.getFuelType() == incoming.getFuelType();
+    }
+
+    private static void setEnum(java.sql.PreparedStatement ps, int index, Enum<?> value) throws java.sql.SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value.name());
+        }
+    }
+
+    /**
+     * Natural key of a vehicle. Compared case-insensitively, like the
+     * database collation compares the unique key.
+     */
+    private record Key(String brand, String model, int year, String color) {
+        private static Key of(Vehicle vehicle) {
+            return new Key(vehicle.getBrand().toLowerCase(Locale.ROOT), vehicle.getModel().toLowerCase(Locale.ROOT),
+                    vehicle.getYear(), vehicle.getColor().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private record Validated(long line, Vehicle vehicle, String error) {
+        private static Validated invalid(long line, String error) {
+            return new Validated(line, null, error);
+        }
+    }
+
+    private final class Progress {
+        private final long start = System.nanoTime();
+        private long lastReport = start;
+        private long read;
+        private long invalid;
+        private long duplicates;
+        private long inserted;
+        private long updated;
+        private long stockUpdated;
+        private long unchanged;
+        private final List<String> errors = new ArrayList<>();
+
+        private void invalid(long line, String error) {
+            invalid++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + line + ": " + error);
+            }
+        }
+
+        private void report() {
+            long now = System.nanoTime();
+            if ((now - lastReport) / 1_000_000 >= progressIntervalMs) {
+                lastReport = now;
+                double seconds = Math.max(1, (now - start) / 1_000_000) / 1000.0;
+                log.info("Vehicle import progress: {} read, {} inserted, {} updated, {} stock updated, {} invalid ({} rows/s)",
+                        read, inserted, updated, stockUpdated, invalid, Math.round(read / seconds));
+            }
+        }
+
+        private VehicleImportResult result() {
+            return VehicleImportResult.builder()
+                    .read(read)
+                    .invalid(invalid)
+                    .duplicates(duplicates)
+                    .inserted(inserted)
+                    .updated(updated)
+                    .stockUpdated(stockUpdated)
+                    .unchanged(unchanged)
+                    .durationMs((System.nanoTime() - start) / 1_000_000)
+                    .errors(List.copyOf(errors))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.vehicle.service;
+
+import com.vehicle.dto.VehicleDTO;
+import com.vehicle.dto.VehicleSearchResponse;
+import com.vehicle.entity.FuelType;
+import com.vehicle.entity.Vehicle;
+import com.vehicle.entity.VehicleType;
+import com.vehicle.event.StockChangedEvent;
+import com.vehicle.event.VehicleChangedEvent;
+import com.vehicle.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index for free-text vehicle search.
+ * <p>
+ * Documents are tokenized per field (name, brand, model, description and a
+ * catch-all attributes field) and ranked with BM25, with per-field boosts.
+ * Every query token must match a document, either exactly, as a prefix of an
+ * indexed term, or within a small edit distance; looser matches score lower.
+ * The index is built on startup and then maintained from catalog and stock
+ * events, so it never has to be rebuilt on a write. Events that arrive while
+ * a rebuild reads the catalog are replayed once the new index is in place, so
+ * the rows read before them cannot overwrite them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VehicleSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.8;
+    private static final double FUZZY_WEIGHT = 0.5;
+    private static final Pattern NON_TOKEN = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private enum Field {
+        NAME(3.0), BRAND(2.0), MODEL(2.0), DESCRIPTION(1.0), ATTRIBUTES(1.0);
+
+        private final double boost;
+
+        Field(double boost) {
+            this.boost = boost;
+        }
+    }
+
+    private static final Field[] FIELDS = Field.values();
+
+    private final VehicleRepository vehicleRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Changes seen since the running rebuild started reading; guarded by the write lock
+    private final Map<Long, VehicleChangedEvent> pendingChanges = new HashMap<>();
+    private final Map<Long, StockChangedEvent> pendingStock = new ConcurrentHashMap<>();
+    private volatile boolean rebuilding;
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final NavigableMap<String, Map<Long, int[]>> postings = new TreeMap<>();
+    // Indexed terms by length, so fuzzy matching only compares terms of a close length
+    private final Map<Integer, Set<String>> termsByLength = new HashMap<>();
+    private final long[] totalFieldLengths = new long[FIELDS.length];
+    private final Map<Long, Listing> vehicles = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Safety net for rows changed outside the application.
+     */
+    @Scheduled(
+            initialDelayString = "${vehicle.search.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${vehicle.search.rebuild-interval-ms:3600000}"
+    )
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            setRebuilding(true);
+            List<Vehicle> all;
+            try {
+                all = vehicleRepository.findAll();
+            } catch (RuntimeException e) {
+                setRebuilding(false);
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                documents.clear();
+                postings.clear();
+                termsByLength.clear();
+                Arrays.fill(totalFieldLengths, 0);
+                vehicles.clear();
+                all.forEach(this::add);
+                pendingChanges.values().stream().filter(this::isNewerThanIndexed).forEach(this::apply);
+                pendingStock.values().forEach(this::apply);
+                pendingChanges.clear();
+                pendingStock.clear();
+                rebuilding = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Search index built with {} vehicles and {} terms", all.size(), postings.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void setRebuilding(boolean value) {
+        lock.writeLock().lock();
+        try {
+            rebuilding = value;
+            pendingChanges.clear();
+            pendingStock.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                pendingChanges.put(event.getVehicleId(), event);
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Events older than the stock a listing already shows are dropped. The
+     * event is recorded for a running rebuild before it is applied, so it is
+     * either replayed after the swap or applied to the new index.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (rebuilding) {
+            pendingStock.merge(event.getVehicleId(), event,
+                    (held, next) -> next.isNewerThan(held.getVersion()) ? next : held);
+        }
+        apply(event);
+    }
+
+    private void apply(VehicleChangedEvent event) {
+        remove(event.getVehicleId());
+        if (!event.isRemoved()) {
+            add(event.getVehicle());
+        }
+    }
+
+    /**
+     * A change that committed before the rebuild read its row is already in
+     * the index, possibly with later stock.
+     */
+    private boolean isNewerThanIndexed(VehicleChangedEvent event) {
+        Listing listing = vehicles.get(event.getVehicleId());
+        if (listing == null || event.isRemoved() || event.getVehicle().getVersion() == null) {
+            return true;
+        }
+        return event.getVehicle().getVersion() > listing.stockVersion();
+    }
+
+    private void apply(StockChangedEvent event) {
+        vehicles.computeIfPresent(event.getVehicleId(), (id, listing) -> {
+            if (!event.isNewerThan(listing.stockVersion())) {
+                return listing;
+            }
+            return new Listing(
+                    listing.vehicle().toBuilder().quantityAvailable(event.getQuantityAvailable()).build(),
+                    event.getVersion() == StockChangedEvent.NO_VERSION ? listing.stockVersion() : event.getVersion());
+        });
+    }
+
+    /**
+     * Ranks vehicles matching {@code query} and counts the hits per facet.
+     * Each facet is counted with the other facet filters applied but not its
+     * own, so the counts show what selecting another value would return.
+     */
+    public VehicleSearchResponse search(
+            String query,
+            VehicleType type,
+            FuelType fuelType,
+            String brand,
+            int page,
+            int size
+    ) {
+        List<String> tokens = tokenize(query);
+        Map<Long, Double> scores;
+        lock.readLock().lock();
+        try {
+            scores = tokens.isEmpty() ? matchAll() : score(tokens);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<VehicleType, Long> typeCounts = new EnumMap<>(VehicleType.class);
+        Map<FuelType, Long> fuelTypeCounts = new EnumMap<>(FuelType.class);
+        Map<String, Long> brandCounts = new TreeMap<>();
+        List<Map.Entry<Long, Double>> hits = new ArrayList<>();
+
+        for (Map.Entry<Long, Double> hit : scores.entrySet()) {
+            Listing listing = vehicles.get(hit.getKey());
+            if (listing == null) {
+                continue;
+            }
+            VehicleDTO vehicle = listing.vehicle();
+            boolean typeMatches = type == null || type == vehicle.getType();
+            boolean fuelTypeMatches = fuelType == null || fuelType == vehicle.getFuelType();
+            boolean brandMatches = brand == null || brand.equalsIgnoreCase(vehicle.getBrand());
+
+            if (fuelTypeMatches && brandMatches && vehicle.getType() != null) {
+                typeCounts.merge(vehicle.getType(), 1L, Long::sum);
+            }
+            if (typeMatches && brandMatches && vehicle.getFuelType() != null) {
+                fuelTypeCounts.merge(vehicle.getFuelType(), 1L, Long::sum);
+            }
+            if (typeMatches && fuelTypeMatches) {
+                brandCounts.merge(vehicle.getBrand(), 1L, Long::sum);
+            }
+            if (typeMatches && fuelTypeMatches && brandMatches) {
+                hits.add(hit);
+            }
+        }
+
+        hits.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        List<VehicleDTO> content = hits.stream()
+                .skip((long) page * size)
+                .limit(size)
+                .map(hit -> vehicles.get(hit.getKey()))
+                .filter(Objects::nonNull)
+                .map(Listing::vehicle)
+                .toList();
+
+        return VehicleSearchResponse.builder()
+                .content(content)
+                .totalElements(hits.size())
+                .page(page)
+                .size(size)
+                .typeCounts(typeCounts)
+                .fuelTypeCounts(fuelTypeCounts)
+                .brandCounts(brandCounts)
+                .build();
+    }
+
+    private Map<Long, Double> matchAll() {
+        Map<Long, Double> scores = new HashMap<>();
+        documents.keySet().forEach(id -> scores.put(id, 0.0));
+        return scores;
+    }
+
+    /**
+     * Sums the BM25 score of every query token. A document that matches a
+     * token through several expansions keeps the best one, and documents
+     * missing any token are dropped.
+     */
+    private Map<Long, Double> score(List<String> tokens) {
+        int documentCount = documents.size();
+        double[] averageLengths = new double[FIELDS.length];
+        for (Field field : FIELDS) {
+            averageLengths[field.ordinal()] = documentCount == 0
+                    ? 0 : (double) totalFieldLengths[field.ordinal()] / documentCount;
+        }
+
+        Map<Long, Double> scores = null;
+        for (String token : tokens) {
+            Map<Long, Double> tokenScores = new HashMap<>();
+            expand(token).forEach((term, weight) -> {
+                Map<Long, int[]> termPostings = postings.get(term);
+                double idf = Math.log(1 + (documentCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                termPostings.forEach((id, frequencies) -> {
+                    double termScore = weight * bm25(documents.get(id), frequencies, idf, averageLengths);
+                    tokenScores.merge(id, termScore, Math::max);
+                });
+            });
+
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private static double bm25(Document document, int[] frequencies, double idf, double[] averageLengths) {
+        double score = 0;
+        for (Field field : FIELDS) {
+            int frequency = frequencies[field.ordinal()];
+            if (frequency == 0) {
+                continue;
+            }
+            double lengthRatio = averageLengths[field.ordinal()] == 0
+                    ? 1 : document.fieldLengths[field.ordinal()] / averageLengths[field.ordinal()];
+            double saturation = frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * lengthRatio));
+            score += field.boost * idf * saturation;
+        }
+        return score;
+    }
+
+    /**
+     * Indexed terms a query token can match, with the weight of each match.
+     */
+    private Map<String, Double> expand(String token) {
+        Map<String, Double> terms = new HashMap<>();
+        if (postings.containsKey(token)) {
+            terms.put(token, 1.0);
+        }
+        if (token.length() >= 2) {
+            for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                terms.putIfAbsent(term, PREFIX_WEIGHT);
+            }
+        }
+        int maxEdits = token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0) {
+            for (int length = token.length() - maxEdits; length <= token.length() + maxEdits; length++) {
+                for (String term : termsByLength.getOrDefault(length, Set.of())) {
+                    if (!terms.containsKey(term) && withinEditDistance(token, term, maxEdits)) {
+                        terms.put(term, FUZZY_WEIGHT);
+                    }
+                }
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Whether the optimal string alignment distance is at most {@code max}.
+     * Keeps only the last three rows of the table, as a transposition looks
+     * two rows back, and gives up as soon as a whole row exceeds {@code max}.
+     */
+    private static boolean withinEditDistance(String a, String b, int max) {
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= max;
+    }
+
+    private void add(Vehicle vehicle) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        int[] fieldLengths = new int[FIELDS.length];
+        indexField(frequencies, fieldLengths, Field.NAME, vehicle.getName());
+        indexField(frequencies, fieldLengths, Field.BRAND, vehicle.getBrand());
+        indexField(frequencies, fieldLengths, Field.MODEL, vehicle.getModel());
+        indexField(frequencies, fieldLengths, Field.DESCRIPTION, vehicle.getDescription());
+        indexField(frequencies, fieldLengths, Field.ATTRIBUTES, String.join(" ",
+                String.valueOf(vehicle.getYear()),
+                String.valueOf(vehicle.getColor()),
+                vehicle.getType() == null ? "" : vehicle.getType().name(),
+                vehicle.getFuelType() == null ? "" : vehicle.getFuelType().name()));
+
+        frequencies.forEach((term, counts) -> postings.computeIfAbsent(term, t -> {
+            termsByLength.computeIfAbsent(t.length(), length -> new HashSet<>()).add(t);
+            return new HashMap<>();
+        }).put(vehicle.getId(), counts));
+        for (int i = 0; i < FIELDS.length; i++) {
+            totalFieldLengths[i] += fieldLengths[i];
+        }
+        documents.put(vehicle.getId(), new Document(frequencies.keySet().toArray(new String[0]), fieldLengths));
+        vehicles.put(vehicle.getId(), new Listing(VehicleService.mapToDTO(vehicle),
+                vehicle.getVersion() == null ? StockChangedEvent.NO_VERSION : vehicle.getVersion()));
+    }
+
+    private void remove(Long vehicleId) {
+        Document document = documents.remove(vehicleId);
+        vehicles.remove(vehicleId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            Map<Long, int[]> termPostings = postings.get(term);
+            termPostings.remove(vehicleId);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+                Set<String> sameLength = termsByLength.get(term.length());
+                sameLength.remove(term);
+                if (sameLength.isEmpty()) {
+                    termsByLength.remove(term.length());
+                }
+            }
+        }
+        for (int i = 0; i < FIELDS.length; i++) {
+            totalFieldLengths[i] -= document.fieldLengths[i];
+        }
+    }
+
+    private static void indexField(Map<String, int[]> frequencies, int[] fieldLengths, Field field, String text) {
+        List<String> tokens = tokenize(text);
+        fieldLengths[field.ordinal()] = tokens.size();
+        for (String token : tokens) {
+            frequencies.computeIfAbsent(token, t -> new int[FIELDS.length])[field.ordinal()]++;
+        }
+    }
+
+    /**
+     * Lower-cases, strips accents and splits on anything that is not a letter or digit.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_TOKEN.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Document(String[] terms, int[] fieldLengths) {
+    }
+
+    /**
+     * A search result with the row version its stock was read at.
+     */
+    private record Listing(VehicleDTO vehicle, long stockVersion) {
+    }
+}
@@ -1,22 +1,32 @@
 package com.vehicle.service;
 
 import com.vehicle.dto.VehicleDTO;
+import com.vehicle.dto.VehicleFacetsResponse;
+import com.vehicle.dto.VehicleSearchResponse;
 import com.vehicle.entity.FuelType;
 import com.vehicle.entity.Vehicle;
 import com.vehicle.entity.VehicleType;
 import com.vehicle.repository.VehicleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class VehicleService {
 
     private final VehicleRepository vehicleRepository;
+    private final VehicleCatalogIndex catalogIndex;
+    private final VehicleSearchIndex searchIndex;
+    private final VehicleDetailCache detailCache;
+    private final StockLevels stockLevels;
+    private final MeterRegistry meterRegistry;
 
     public Page<VehicleDTO> getAllVehicles(
             String name,
@@ -28,18 +38,53 @@ public class VehicleService {
             FuelType fuelType,
             Pageable pageable
     ) {
-        return vehicleRepository.searchVehicles(
-                name, brand, model, minPrice, maxPrice, type, fuelType, pageable
-        ).map(this::mapToDTO);
+        return meterRegistry.timer("vehicle.catalog.list").record(() ->
+                catalogIndex.search(name, brand, model, minPrice, maxPrice, type, fuelType, pageable)
+                        .orElseGet(() -> vehicleRepository.searchVehicles(
+                                name, brand, model, minPrice, maxPrice, type, fuelType, pageable
+                        ).map(VehicleService::mapToDTO))
+                        .map(stockLevels::apply));
+    }
+
+    public VehicleFacetsResponse getVehicleFacets(
+            String name,
+            String brand,
+            String model,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            VehicleType type,
+            FuelType fuelType
+    ) {
+        return catalogIndex.facets(name, brand, model, minPrice, maxPrice, type, fuelType);
+    }
+
+    public VehicleSearchResponse searchVehicles(
+            String query,
+            VehicleType type,
+            FuelType fuelType,
+            String brand,
+            int page,
+            int size
+    ) {
+        return meterRegistry.timer("vehicle.catalog.search").record(() -> {
+            VehicleSearchResponse response = searchIndex.search(query, type, fuelType, brand, page, size);
+            response.setContent(response.getContent().stream().map(stockLevels::apply).toList());
+            return response;
+        });
     }
 
     public VehicleDTO getVehicleById(Long id) {
-        return vehicleRepository.findById(id)
-                .map(this::mapToDTO)
-                .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + id));
+        return stockLevels.apply(detailCache.get(id));
+    }
+
+    /**
+     * Current stock of the given vehicles; unknown ids are left out.
+     */
+    public Map<Long, Integer> getStockLevels(Collection<Long> ids) {
+        return stockLevels.get(ids);
     }
 
-    private VehicleDTO mapToDTO(Vehicle vehicle) {
+    static VehicleDTO mapToDTO(Vehicle vehicle) {
         return VehicleDTO.builder()
                 .id(vehicle.getId())
                 .name(vehicle.getName())
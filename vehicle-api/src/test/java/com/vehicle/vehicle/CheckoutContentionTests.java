@@ -0,0 +1,114 @@
+package com.vehicle.vehicle;
+
+import com.vehicle.dto.CreateOrderRequest;
+import com.vehicle.dto.OrderItemRequest;
+import com.vehicle.entity.User;
+import com.vehicle.repository.UserRepository;
+import com.vehicle.repository.VehicleRepository;
+import com.vehicle.service.InsufficientStockException;
+import com.vehicle.service.OrderService;
+import com.vehicle.service.StockConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.vehicle.vehicle.TestFixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many buyers race for a few vehicles with a small stock that sells out.
+ * Every unit must end up either sold or still available, and stock never
+ * goes below zero. Subclasses pick the inventory mode.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+abstract class CheckoutContentionTests {
+
+    private static final int HOT_VEHICLES = 3;
+    private static final int STOCK = 5;
+    private static final int BUYERS = 16;
+    private static final int ATTEMPTS_PER_BUYER = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sellsOutWithoutOverselling() throws Exception {
+        List<Long> vehicleIds = new ArrayList<>();
+        for (int i = 0; i < HOT_VEHICLES; i++) {
+            vehicleIds.add(vehicleRepository.save(vehicle(STOCK)).getId());
+        }
+
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(BUYERS);
+        try {
+            List<Future<?>> buyers = new ArrayList<>();
+            for (int b = 0; b < BUYERS; b++) {
+                User buyer = userRepository.save(user());
+                buyers.add(pool.submit(() -> {
+                    start.await();
+                    for (int attempt = 0; attempt < ATTEMPTS_PER_BUYER; attempt++) {
+                        try {
+                            orderService.createOrder(buyer, randomCart(vehicleIds));
+                            placed.incrementAndGet();
+                        } catch (InsufficientStockException | StockConflictException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> buyer : buyers) {
+                buyer.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(placed.get()).isPositive();
+        assertThat(rejected.get()).isPositive();
+        for (Long id : vehicleIds) {
+            int left = jdbcTemplate.queryForObject(
+                    "SELECT quantity_available FROM vehicles WHERE id = ?", Integer.class, id);
+            int sold = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(quantity), 0) FROM order_items WHERE vehicle_id = ?", Integer.class, id);
+            assertThat(left).as("stock left of vehicle %d", id).isGreaterThanOrEqualTo(0);
+            assertThat(sold + left).as("units sold and left of vehicle %d", id).isEqualTo(STOCK);
+        }
+    }
+
+    /**
+     * One or two of the hot vehicles, one unit each, listed in random order
+     * so overlapping carts lock in different orders.
+     */
+    private static CreateOrderRequest randomCart(List<Long> vehicleIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<OrderItemRequest> items = new ArrayList<>();
+        int first = random.nextInt(vehicleIds.size());
+        items.add(line(vehicleIds.get(first), 1));
+        if (random.nextBoolean()) {
+            int second = (first + 1 + random.nextInt(vehicleIds.size() - 1)) % vehicleIds.size();
+            items.add(line(vehicleIds.get(second), 1));
+        }
+        return cart(items);
+    }
+}
@@ -0,0 +1,7 @@
+package com.vehicle.vehicle;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "vehicle.inventory.mode=DATABASE")
+class DatabaseCheckoutContentionTests extends CheckoutContentionTests {
+}
@@ -0,0 +1,215 @@
+package com.vehicle.vehicle;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicle.dto.CreateOrderRequest;
+import com.vehicle.dto.OrderResponse;
+import com.vehicle.entity.User;
+import com.vehicle.entity.Vehicle;
+import com.vehicle.repository.UserRepository;
+import com.vehicle.repository.VehicleRepository;
+import com.vehicle.service.IdempotencyStore;
+import com.vehicle.service.JwtService;
+import com.vehicle.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.vehicle.vehicle.TestFixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Order submissions with an {@code Idempotency-Key}, through the API and
+ * through {@link IdempotencyStore} where the timing has to be controlled.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void replaysTheOriginalResponse() throws Exception {
+        User user = userRepository.save(user());
+        CreateOrderRequest request = cart(line(vehicleRepository.save(vehicle(10)).getId(), 1));
+
+        MvcResult first = submit(user, "key-1", request);
+        MvcResult retry = submit(user, "key-1", request);
+
+        assertThat(first.getResponse().getStatus()).isEqualTo(200);
+        assertThat(first.getResponse().getHeader("Idempotent-Replayed")).isEqualTo("false");
+        assertThat(retry.getResponse().getStatus()).isEqualTo(200);
+        assertThat(retry.getResponse().getHeader("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(orderId(retry)).isEqualTo(orderId(first));
+        assertThat(orderCount(user)).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsKeyReusedForAnotherRequest() throws Exception {
+        User user = userRepository.save(user());
+        Vehicle vehicle = vehicleRepository.save(vehicle(10));
+
+        submit(user, "key-1", cart(line(vehicle.getId(), 1)));
+        MvcResult reused = submit(user, "key-1", cart(line(vehicle.getId(), 2)));
+
+        assertThat(reused.getResponse().getStatus()).isEqualTo(422);
+        assertThat(orderCount(user)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentSubmissionsOfOneKeyPlaceOneOrder() throws Exception {
+        User user = userRepository.save(user());
+        CreateOrderRequest request = cart(line(vehicleRepository.save(vehicle(10)).getId(), 1));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Callable<MvcResult> submission = () -> {
+                start.await();
+                return submit(user, "key-1", request);
+            };
+            Future<MvcResult> first = pool.submit(submission);
+            Future<MvcResult> second = pool.submit(submission);
+            start.countDown();
+
+            MvcResult a = first.get(30, TimeUnit.SECONDS);
+            MvcResult b = second.get(30, TimeUnit.SECONDS);
+            assertThat(a.getResponse().getStatus()).isEqualTo(200);
+            assertThat(b.getResponse().getStatus()).isEqualTo(200);
+            assertThat(orderId(a)).isEqualTo(orderId(b));
+            assertThat(List.of(a.getResponse().getHeader("Idempotent-Replayed"),
+                    b.getResponse().getHeader("Idempotent-Replayed"))).containsExactlyInAnyOrder("false", "true");
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(orderCount(user)).isEqualTo(1);
+    }
+
+    @Test
+    void coalescesADuplicateThatArrivesWhileTheFirstIsRunning() throws Exception {
+        User user = userRepository.save(user());
+        CreateOrderRequest request = cart(line(vehicleRepository.save(vehicle(10)).getId(), 1));
+        AtomicInteger checkouts = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        double coalescedBefore = coalesced();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotencyStore.Result> first = pool.submit(() -> idempotencyStore.execute(user, "key-1", request,
+                    claim -> {
+                        checkouts.incrementAndGet();
+                        awaitQuietly(release);
+                        return orderService.createOrder(user, request, claim);
+                    }));
+            await().atMost(Duration.ofSeconds(10)).until(() -> checkouts.get() == 1);
+            Future<IdempotencyStore.Result> duplicate = pool.submit(() -> idempotencyStore.execute(user, "key-1", request,
+                    claim -> {
+                        checkouts.incrementAndGet();
+                        return orderService.createOrder(user, request, claim);
+                    }));
+            await().atMost(Duration.ofSeconds(10)).until(() -> coalesced() > coalescedBefore);
+            release.countDown();
+
+            IdempotencyStore.Result original = first.get(30, TimeUnit.SECONDS);
+            IdempotencyStore.Result coalesced = duplicate.get(30, TimeUnit.SECONDS);
+            assertThat(original.replayed()).isFalse();
+            assertThat(coalesced.replayed()).isTrue();
+            assertThat(coalesced.response().getId()).isEqualTo(original.response().getId());
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+        assertThat(checkouts.get()).isEqualTo(1);
+        assertThat(orderCount(user)).isEqualTo(1);
+    }
+
+    /**
+     * Another instance stores the key between our lookup and our commit: the
+     * unique key rolls our order back and its order is replayed instead.
+     */
+    @Test
+    void replaysTheWinnerWhenAnotherInstanceStoresTheKeyFirst() {
+        User user = userRepository.save(user());
+        CreateOrderRequest request = cart(line(vehicleRepository.save(vehicle(10)).getId(), 1));
+        AtomicLong winner = new AtomicLong();
+
+        IdempotencyStore.Result result = idempotencyStore.execute(user, "key-1", request, claim -> {
+            OrderResponse other = orderService.createOrder(user, request, claim);
+            winner.set(other.getId());
+            return orderService.createOrder(user, request, claim);
+        });
+
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.response().getId()).isEqualTo(winner.get());
+        assertThat(orderCount(user)).isEqualTo(1);
+    }
+
+    private MvcResult submit(User user, String key, CreateOrderRequest request) throws Exception {
+        return mockMvc.perform(post("/api/orders")
+                        .header("Authorization", "Bearer " + jwtService.generateToken(user))
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+    }
+
+    private long orderId(MvcResult result) throws Exception {
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        return body.get("id").asLong();
+    }
+
+    private int orderCount(User user) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE user_id = ?", Integer.class, user.getId());
+    }
+
+    private double coalesced() {
+        return meterRegistry.counter("vehicle.orders.idempotency", "result", "coalesced").count();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
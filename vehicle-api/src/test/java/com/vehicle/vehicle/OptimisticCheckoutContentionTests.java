@@ -0,0 +1,7 @@
+package com.vehicle.vehicle;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "vehicle.inventory.mode=OPTIMISTIC")
+class OptimisticCheckoutContentionTests extends CheckoutContentionTests {
+}
@@ -0,0 +1,143 @@
+package com.vehicle.vehicle;
+
+import com.vehicle.dto.OrderCursorPage;
+import com.vehicle.dto.OrderResponse;
+import com.vehicle.entity.User;
+import com.vehicle.entity.Vehicle;
+import com.vehicle.repository.UserRepository;
+import com.vehicle.repository.VehicleRepository;
+import com.vehicle.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.vehicle.vehicle.TestFixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderServiceTests {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void mergesDuplicateCartLines() {
+        User user = userRepository.save(user());
+        Vehicle vehicle = vehicleRepository.save(vehicle(10));
+
+        OrderResponse order = orderService.createOrder(user,
+                cart(line(vehicle.getId(), 1), line(vehicle.getId(), 2)));
+
+        assertThat(order.getItems()).hasSize(1);
+        assertThat(order.getItems().get(0).getQuantity()).isEqualTo(3);
+        assertThat(stock(vehicle)).isEqualTo(7);
+    }
+
+    @Test
+    void rejectsMergedQuantityThatOverflows() {
+        User user = userRepository.save(user());
+        Vehicle vehicle = vehicleRepository.save(vehicle(10));
+
+        assertThatThrownBy(() -> orderService.createOrder(user,
+                cart(line(vehicle.getId(), Integer.MAX_VALUE), line(vehicle.getId(), 1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("too large");
+        assertThat(stock(vehicle)).isEqualTo(10);
+        assertThat(orderCount(user)).isZero();
+    }
+
+    @Test
+    void cursorPagingVisitsEveryOrderOnceInOrder() {
+        User user = userRepository.save(user());
+        Vehicle vehicle = vehicleRepository.save(vehicle(10));
+        List<Long> placed = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            placed.add(orderService.createOrder(user, cart(line(vehicle.getId(), 1))).getId());
+        }
+
+        assertThat(walk(user, Sort.Direction.DESC)).containsExactlyElementsOf(
+                placed.stream().sorted(Comparator.reverseOrder()).toList());
+        assertThat(walk(user, Sort.Direction.ASC)).containsExactlyElementsOf(placed);
+        assertThatThrownBy(() -> orderService.getUserOrdersAfter(user, "not-a-cursor", 2, Sort.Direction.DESC))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cancellationReleasesStockOnce() {
+        User user = userRepository.save(user());
+        Vehicle vehicle = vehicleRepository.save(vehicle(5));
+        OrderResponse order = orderService.createOrder(user, cart(line(vehicle.getId(), 2)));
+        assertThat(stock(vehicle)).isEqualTo(3);
+
+        orderService.cancelOrder(user, order.getId());
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> "CANCELLED".equals(status(order.getId())));
+        assertThat(stock(vehicle)).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT status FROM order_summaries WHERE order_id = ?", String.class, order.getId()))
+                .isEqualTo("CANCELLED");
+        assertThatThrownBy(() -> orderService.cancelOrder(user, order.getId()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(stock(vehicle)).isEqualTo(5);
+    }
+
+    @Test
+    void cannotCancelAnotherUsersOrder() {
+        User owner = userRepository.save(user());
+        Vehicle vehicle = vehicleRepository.save(vehicle(5));
+        OrderResponse order = orderService.createOrder(owner, cart(line(vehicle.getId(), 1)));
+        User stranger = userRepository.save(user());
+
+        assertThatThrownBy(() -> orderService.cancelOrder(stranger, order.getId()))
+                .hasMessageContaining("not found");
+        assertThat(stock(vehicle)).isEqualTo(4);
+    }
+
+    /**
+     * Follows the cursor two orders at a time until the last page.
+     */
+    private List<Long> walk(User user, Sort.Direction direction) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderCursorPage page = orderService.getUserOrdersAfter(user, cursor, 2, direction);
+            page.getContent().forEach(order -> ids.add(order.getId()));
+            assertThat(page.getNextCursor() == null).isEqualTo(!page.isHasNext());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private int stock(Vehicle vehicle) {
+        return jdbcTemplate.queryForObject(
+                "SELECT quantity_available FROM vehicles WHERE id = ?", Integer.class, vehicle.getId());
+    }
+
+    private String status(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class, orderId);
+    }
+
+    private int orderCount(User user) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE user_id = ?", Integer.class, user.getId());
+    }
+}
@@ -0,0 +1,85 @@
+package com.vehicle.vehicle;
+
+import com.vehicle.dto.VehicleDTO;
+import com.vehicle.entity.User;
+import com.vehicle.entity.Vehicle;
+import com.vehicle.event.StockChangedEvent;
+import com.vehicle.repository.UserRepository;
+import com.vehicle.repository.VehicleRepository;
+import com.vehicle.service.OrderService;
+import com.vehicle.service.StockLevels;
+import com.vehicle.service.VehicleCatalogIndex;
+import com.vehicle.service.VehicleSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.vehicle.vehicle.TestFixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * After-commit listeners of two checkouts can run in the opposite order of
+ * their commits. The stock read models must keep the later commit's level.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StockEventOrderingTests {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StockLevels stockLevels;
+
+    @Autowired
+    private VehicleCatalogIndex catalogIndex;
+
+    @Autowired
+    private VehicleSearchIndex searchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void dropsStockEventOfAnEarlierCommit() {
+        User user = userRepository.save(user());
+        Vehicle vehicle = vehicleRepository.save(vehicle(10));
+        catalogIndex.rebuild();
+        searchIndex.rebuild();
+
+        orderService.createOrder(user, cart(line(vehicle.getId(), 1)));
+        orderService.createOrder(user, cart(line(vehicle.getId(), 1)));
+        long version = jdbcTemplate.queryForObject(
+                "SELECT version FROM vehicles WHERE id = ?", Long.class, vehicle.getId());
+        assertThat(readModels(vehicle)).containsOnly(8);
+
+        // The first checkout's listeners run only now, after the second one's
+        eventPublisher.publishEvent(new StockChangedEvent(vehicle.getId(), 9, version - 1));
+
+        assertThat(readModels(vehicle)).containsOnly(8);
+    }
+
+    /**
+     * The stock level each read model reports for the vehicle.
+     */
+    private int[] readModels(Vehicle vehicle) {
+        VehicleDTO indexed = catalogIndex.search(null, vehicle.getBrand(), null, null, null, null, null,
+                PageRequest.of(0, 1)).orElseThrow().getContent().get(0);
+        VehicleDTO searched = searchIndex.search(null, null, null, vehicle.getBrand(), 0, 1)
+                .getContent().get(0);
+        return new int[]{stockLevels.get(vehicle.getId()), indexed.getQuantityAvailable(), searched.getQuantityAvailable()};
+    }
+}
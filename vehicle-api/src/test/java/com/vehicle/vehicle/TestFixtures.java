@@ -0,0 +1,63 @@
+package com.vehicle.vehicle;
+
+import com.vehicle.dto.CreateOrderRequest;
+import com.vehicle.dto.OrderItemRequest;
+import com.vehicle.entity.Role;
+import com.vehicle.entity.User;
+import com.vehicle.entity.Vehicle;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Unsaved entities and order requests for the tests. Emails and vehicle
+ * brands are unique, so tests can share an application context.
+ */
+final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    static User user() {
+        return User.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email(UUID.randomUUID() + "@example.com")
+                .password("unused")
+                .role(Role.USER)
+                .build();
+    }
+
+    static Vehicle vehicle(int stock) {
+        String id = UUID.randomUUID().toString();
+        return Vehicle.builder()
+                .name("Test " + id)
+                .brand("Brand " + id)
+                .model("Model")
+                .year(2024)
+                .color("Blue")
+                .price(new BigDecimal("20000.00"))
+                .quantityAvailable(stock)
+                .imageUrl("https://example.com/" + id + ".png")
+                .build();
+    }
+
+    static CreateOrderRequest cart(OrderItemRequest... items) {
+        return cart(List.of(items));
+    }
+
+    static CreateOrderRequest cart(List<OrderItemRequest> items) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setShippingAddress("1 Test Street");
+        request.setItems(items);
+        return request;
+    }
+
+    static OrderItemRequest line(Long vehicleId, int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setVehicleId(vehicleId);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
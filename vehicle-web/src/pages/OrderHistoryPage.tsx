@@ -12,31 +12,39 @@ interface OrderItem {
   totalPrice: number;
 }
 
-interface Order {
+interface OrderSummary {
   id: number;
-  userEmail: string;
-  shippingAddress: string;
   totalAmount: number;
   status: string;
   createdAt: string;
+  itemCount: number;
+  firstVehicleName: string | null;
+}
+
+interface OrderDetails {
+  id: number;
+  shippingAddress: string;
   items: OrderItem[];
 }
 
 // This interface represents the API response structure
 interface OrdersResponse {
-  content: Order[];
+  content: OrderSummary[];
   totalPages: number;
 }
 
 const OrderHistoryPage = () => {
   const { isAuthenticated } = useAuth();
   const navigate = useNavigate();
-  const [orders, setOrders] = useState<Order[]>([]);
+  const [orders, setOrders] = useState<OrderSummary[]>([]);
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
   const [page, setPage] = useState(0);
   const [totalPages, setTotalPages] = useState(0);
   const [expandedOrder, setExpandedOrder] = useState<number | null>(null);
+  // Items are loaded per order the first time its details are opened
+  const [details, setDetails] = useState<Record<number, OrderDetails>>({});
+  const [detailsError, setDetailsError] = useState<string | null>(null);
 
   useEffect(() => {
     if (!isAuthenticated) {
@@ -52,7 +60,7 @@ const OrderHistoryPage = () => {
     setError(null);
     
     try {
-      const response: OrdersResponse = await apiService.getUserOrders(page, 10, 'createdAt', 'desc');
+      const response: OrdersResponse = await apiService.getUserOrderSummaries(page, 10, 'desc');
       setOrders(response.content);
       setTotalPages(response.totalPages);
     } catch (err) {
@@ -93,14 +101,35 @@ const OrderHistoryPage = () => {
     }
   };
 
-  const toggleOrderDetails = (orderId: number) => {
+  const toggleOrderDetails = async (orderId: number) => {
     if (expandedOrder === orderId) {
       setExpandedOrder(null);
-    } else {
-      setExpandedOrder(orderId);
+      return;
+    }
+    setExpandedOrder(orderId);
+    setDetailsError(null);
+    if (details[orderId]) {
+      return;
+    }
+    try {
+      const order: OrderDetails = await apiService.getOrder(orderId);
+      setDetails(loaded => ({ ...loaded, [orderId]: order }));
+    } catch (err) {
+      console.error('Error fetching order details:', err);
+      setDetailsError('Failed to load the order details. Please try again.');
     }
   };
 
+  const describeItems = (order: OrderSummary) => {
+    if (!order.firstVehicleName) {
+      return `${order.itemCount} item${order.itemCount === 1 ? '' : 's'}`;
+    }
+    const others = order.itemCount - 1;
+    return others > 0
+      ? `${order.firstVehicleName} and ${others} more item${others === 1 ? '' : 's'}`
+      : order.firstVehicleName;
+  };
+
   return (
     <div className="bg-gradient-to-b from-orange-50 to-white min-h-screen">
       <div className="max-w-7xl mx-auto px-4 sm:px-6 lg:px-8 py-12">
@@ -172,6 +201,7 @@ const OrderHistoryPage = () => {
                       <div className="ml-0 sm:ml-4">
                         <h3 className="text-lg font-semibold text-neutral-900">Order #{order.id}</h3>
                         <p className="mt-1 text-sm text-neutral-500">{formatDate(order.createdAt)}</p>
+                        <p className="mt-1 text-sm text-neutral-700">{describeItems(order)}</p>
                       </div>
                     </div>
                     <div className="mt-2 sm:mt-0 flex flex-col sm:flex-row sm:items-center sm:space-x-4">
@@ -201,12 +231,24 @@ const OrderHistoryPage = () => {
                   </div>
                 </div>
                 
-                {expandedOrder === order.id && (
+                {expandedOrder === order.id && !details[order.id] && (
+                  <div className="px-6 py-5">
+                    {detailsError ? (
+                      <p className="text-sm text-red-800">{detailsError}</p>
+                    ) : (
+                      <div className="flex justify-center">
+                        <div className="animate-spin rounded-full h-6 w-6 border-b-2 border-primary"></div>
+                      </div>
+                    )}
+                  </div>
+                )}
+
+                {expandedOrder === order.id && details[order.id] && (
                   <div className="px-6 py-5">
                     <div className="flow-root mt-2">
                       <h4 className="text-sm font-medium text-neutral-900 mb-3">Items</h4>
                       <ul className="divide-y divide-neutral-200 rounded-lg border border-neutral-200 overflow-hidden">
-                        {order.items.map(item => (
+                        {details[order.id].items.map(item => (
                           <li key={item.id} className="py-4 px-4 hover:bg-orange-50/30 transition-colors">
                             <div className="flex items-center">
                               <div className="flex-1">
@@ -232,7 +274,7 @@ const OrderHistoryPage = () => {
                       <div className="flex justify-between items-start">
                         <div className="text-sm">
                           <p className="font-medium text-neutral-900">Shipping Address:</p>
-                          <p className="mt-1 text-neutral-500">{order.shippingAddress}</p>
+                          <p className="mt-1 text-neutral-500">{details[order.id].shippingAddress}</p>
                         </div>
                         <div className="bg-orange-50 px-4 py-2 rounded-lg border border-orange-100">
                           <p className="text-xs font-medium text-neutral-500">Total Amount</p>
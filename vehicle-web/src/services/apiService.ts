@@ -71,6 +71,28 @@ class ApiService {
     }
   }
 
+  // Get order summaries (no items) with pagination
+  async getUserOrderSummaries(page = 0, size = 10, sortDir = 'desc') {
+    try {
+      const response = await apiClient.get('/api/orders/summaries', {
+        params: { page, size, sortDir }
+      });
+      return response.data;
+    } catch (error) {
+      throw error;
+    }
+  }
+
+  // Get one order with its items
+  async getOrder(orderId: number) {
+    try {
+      const response = await apiClient.get(`/api/orders/${orderId}`);
+      return response.data;
+    } catch (error) {
+      throw error;
+    }
+  }
+
   // Generic GET method
   async get(endpoint: string, params?: Record<string, any>) {
     try {